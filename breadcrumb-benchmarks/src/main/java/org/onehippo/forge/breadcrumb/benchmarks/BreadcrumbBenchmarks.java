@@ -0,0 +1,44 @@
+/*
+ * Copyright 2026 Bloomreach
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onehippo.forge.breadcrumb.benchmarks;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs the breadcrumb benchmarks with the GC profiler, accepting the regular JMH command line options, e.g.
+ * <pre>
+ * java -jar breadcrumb-benchmarks/target/benchmarks.jar -p mode=CONTENT_BASED -rf json
+ * </pre>
+ */
+public final class BreadcrumbBenchmarks {
+
+	private BreadcrumbBenchmarks() {
+	}
+
+	public static void main(final String[] args) throws RunnerException, CommandLineOptionException {
+		final CommandLineOptions commandLineOptions = new CommandLineOptions(args);
+		new Runner(new OptionsBuilder()
+				.parent(commandLineOptions)
+				.include(BreadcrumbProviderBenchmark.class.getSimpleName())
+				.addProfiler(GCProfiler.class)
+				.build()).run();
+	}
+}
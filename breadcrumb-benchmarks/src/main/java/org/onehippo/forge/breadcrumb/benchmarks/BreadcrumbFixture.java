@@ -0,0 +1,378 @@
+/*
+ * Copyright 2026 Bloomreach
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onehippo.forge.breadcrumb.benchmarks;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.hippoecm.hst.component.support.bean.BaseHstComponent;
+import org.hippoecm.hst.configuration.components.HstComponentConfiguration;
+import org.hippoecm.hst.configuration.hosting.Mount;
+import org.hippoecm.hst.configuration.hosting.VirtualHost;
+import org.hippoecm.hst.configuration.hosting.VirtualHosts;
+import org.hippoecm.hst.configuration.sitemap.HstSiteMapItem;
+import org.hippoecm.hst.content.beans.manager.ObjectBeanManager;
+import org.hippoecm.hst.content.beans.standard.HippoBean;
+import org.hippoecm.hst.content.beans.standard.HippoDocument;
+import org.hippoecm.hst.content.beans.standard.HippoFolderBean;
+import org.hippoecm.hst.core.component.HstRequest;
+import org.hippoecm.hst.core.linking.HstLink;
+import org.hippoecm.hst.core.linking.HstLinkCreator;
+import org.hippoecm.hst.core.request.HstRequestContext;
+import org.hippoecm.hst.core.request.HstSiteMapMatcher;
+import org.hippoecm.hst.core.request.ResolvedMount;
+import org.hippoecm.hst.core.request.ResolvedSiteMapItem;
+import org.hippoecm.hst.core.sitemenu.HstSiteMenu;
+import org.hippoecm.hst.core.sitemenu.HstSiteMenuItem;
+import org.hippoecm.hst.core.sitemenu.HstSiteMenus;
+import org.hippoecm.hst.mock.core.linking.MockHstLink;
+import org.onehippo.forge.breadcrumb.components.BreadcrumbConfiguration;
+import org.onehippo.forge.breadcrumb.components.BreadcrumbProvider;
+
+import static org.onehippo.forge.breadcrumb.benchmarks.Stubs.stub;
+
+/**
+ * In-memory site for benchmarking {@link BreadcrumbProvider}: a menu of a given depth, a content tree of a given
+ * depth below the site content base, and a request for the document at the bottom of that tree.
+ */
+final class BreadcrumbFixture {
+
+	/**
+	 * The way the provider creates the content part of the breadcrumb.
+	 */
+	enum Mode {
+		/** deepest menu item maps to an ancestor folder, trailing document only */
+		TRAILING_DOCUMENT_ONLY,
+		/** deepest menu item has no bean, content items follow the URL */
+		URL_BASED,
+		/** deepest menu item maps to an ancestor folder */
+		ANCESTOR_BASED,
+		/** no menu item is expanded, content items up to the site content base */
+		CONTENT_BASED,
+		/** ancestor based, with links post processed for the not found page */
+		NOT_FOUND
+	}
+
+	private static final String CONTENT_BASE_PATH = "/content/documents/site";
+
+	private final Map<ResolvedSiteMapItem, HippoBean> beansBySiteMapItem = new HashMap<>();
+	private final Map<String, HippoBean> beansByIdentifier = new HashMap<>();
+	private final Map<String, Object> requestAttributes = new HashMap<>();
+
+	private final HstRequest request;
+	private final BreadcrumbProvider provider;
+
+	BreadcrumbFixture(final Mode mode, final int menuDepth, final int contentDepth, final boolean cacheEnabled) {
+		final VirtualHosts virtualHosts = stub(VirtualHosts.class, (method, args) -> null);
+		final VirtualHost virtualHost = stub(VirtualHost.class,
+				(method, args) -> "getVirtualHosts".equals(method) ? virtualHosts : null);
+		final HstSiteMapItem mappedItem = stub(HstSiteMapItem.class, (method, args) ->
+				"getComponentConfigurationIdMappings".equals(method) ? Collections.singletonMap("key", "value") : null);
+		final HstComponentConfiguration notFoundPage = stub(HstComponentConfiguration.class,
+				(method, args) -> "getName".equals(method) ? BreadcrumbProvider.HST_PAGES_PAGENOTFOUND_ID : null);
+		final ResolvedSiteMapItem notFoundResolvedItem = stub(ResolvedSiteMapItem.class,
+				(method, args) -> "getHstComponentConfiguration".equals(method) ? notFoundPage : null);
+		final HstSiteMapMatcher matcher = stub(HstSiteMapMatcher.class, (method, args) ->
+				// every second folder level is not found
+				"match".equals(method) && ((String) args[0]).split("/").length % 2 == 0 ? notFoundResolvedItem : null);
+		final Mount mount = stub(Mount.class, (method, args) -> {
+			switch (method) {
+				case "getIdentifier":
+					return "mount";
+				case "getContentPath":
+					return CONTENT_BASE_PATH;
+				case "getVirtualHost":
+					return virtualHost;
+				case "getHstSiteMapMatcher":
+					return matcher;
+				default:
+					return null;
+			}
+		});
+		final ResolvedMount resolvedMount = stub(ResolvedMount.class,
+				(method, args) -> "getMount".equals(method) ? mount : null);
+
+		// content: site base, folders level1..levelN-1, document at level N
+		final HippoBean siteContentBase = createFolder(CONTENT_BASE_PATH, null);
+		HippoBean bean = siteContentBase;
+		HippoBean firstFolder = null;
+		final StringBuilder pathInfo = new StringBuilder();
+		for (int level = 1; level < contentDepth; level++) {
+			pathInfo.append(level == 1 ? "" : "/").append("level").append(level);
+			bean = createFolder(CONTENT_BASE_PATH + "/" + pathInfo, bean);
+			if (firstFolder == null) {
+				firstFolder = bean;
+			}
+		}
+		pathInfo.append(pathInfo.length() == 0 ? "" : "/").append("document");
+		final HippoBean document = register(new FixtureDocument(CONTENT_BASE_PATH + "/" + pathInfo, bean));
+		if (firstFolder == null) {
+			firstFolder = siteContentBase;
+		}
+
+		final ResolvedSiteMapItem currentItem = createResolvedSiteMapItem(pathInfo.toString());
+		beansBySiteMapItem.put(currentItem, document);
+
+		// menu: items menu1..menuN, the deepest one pointing to the first folder
+		final String menuPathInfo = (contentDepth > 1) ? "level1" : "";
+		final ResolvedSiteMapItem menuItem = createResolvedSiteMapItem(menuPathInfo);
+		if (mode != Mode.URL_BASED) {
+			beansBySiteMapItem.put(menuItem, firstFolder);
+		}
+		HstSiteMenuItem deepestMenuItem = null;
+		for (int depth = 1; depth <= menuDepth; depth++) {
+			deepestMenuItem = createMenuItem("menu" + depth, deepestMenuItem,
+					(depth == menuDepth) ? menuItem : null);
+		}
+		final HstSiteMenuItem expandedItem = (mode == Mode.CONTENT_BASED) ? null : deepestMenuItem;
+		final HstSiteMenu menu = stub(HstSiteMenu.class, (method, args) -> {
+			switch (method) {
+				case "getName":
+					return BreadcrumbProvider.DEFAULT_MENU_NAME;
+				case "getDeepestExpandedItem":
+					return expandedItem;
+				default:
+					return null;
+			}
+		});
+		final HstSiteMenus menus = stub(HstSiteMenus.class, (method, args) -> "getSiteMenu".equals(method)
+				&& BreadcrumbProvider.DEFAULT_MENU_NAME.equals(args[0]) ? menu : null);
+
+		final HstLinkCreator linkCreator = stub(HstLinkCreator.class, (method, args) -> {
+			if (!"create".equals(method)) {
+				return null;
+			}
+			if (args[0] instanceof HippoBean) {
+				return createLink(((HippoBean) args[0]).getPath(), mappedItem, mount);
+			}
+			if (args[0] instanceof String && args.length == 3 && args[2] instanceof HstRequestContext) {
+				return createLink(beansByIdentifier.get(args[0]).getPath(), mappedItem, mount);
+			}
+			return null;
+		});
+		final ObjectBeanManager objectBeanManager = stub(ObjectBeanManager.class, (method, args) ->
+				"getObjectByUuid".equals(method) ? beansByIdentifier.get(args[0]) : null);
+
+		final HstRequestContext requestContext = stub(HstRequestContext.class, (method, args) -> {
+			switch (method) {
+				case "getHstSiteMenus":
+					return menus;
+				case "getResolvedSiteMapItem":
+					return currentItem;
+				case "getResolvedMount":
+					return resolvedMount;
+				case "getHstLinkCreator":
+					return linkCreator;
+				case "getSiteContentBaseBean":
+					return siteContentBase;
+				case "getObjectBeanManager":
+					return objectBeanManager;
+				case "getAttribute":
+					return requestAttributes.get(args[0]);
+				case "setAttribute":
+					requestAttributes.put((String) args[0], args[1]);
+					return null;
+				default:
+					return null;
+			}
+		});
+		request = stub(HstRequest.class, (method, args) -> "getRequestContext".equals(method) ? requestContext : null);
+
+		final BaseHstComponent component = new BaseHstComponent() {
+			@Override
+			public HippoBean getBeanForResolvedSiteMapItem(final HstRequest request,
+					final ResolvedSiteMapItem resolvedSiteMapItem) {
+				return beansBySiteMapItem.get(resolvedSiteMapItem);
+			}
+		};
+		provider = new BreadcrumbProvider(component, new BreadcrumbConfiguration(null, null,
+				(mode == Mode.NOT_FOUND) ? BreadcrumbProvider.LinkNotFoundMode.HIDE : null,
+				mode == Mode.TRAILING_DOCUMENT_ONLY, mode == Mode.CONTENT_BASED, cacheEnabled, false));
+	}
+
+	HstRequest getRequest() {
+		// every benchmark invocation is a new request
+		requestAttributes.clear();
+		return request;
+	}
+
+	BreadcrumbProvider getProvider() {
+		return provider;
+	}
+
+	private HippoBean createFolder(final String path, final HippoBean parent) {
+		final String identifier = getIdentifier(path);
+		final String name = getName(path);
+		return register(stub(HippoFolderBean.class, (method, args) -> {
+			switch (method) {
+				case "getPath":
+				case "getCanonicalPath":
+					return path;
+				case "getIdentifier":
+				case "getCanonicalUUID":
+					return identifier;
+				case "getName":
+				case "getDisplayName":
+					return name;
+				case "getParentBean":
+					return parent;
+				case "isSelf":
+				case "equalCompare":
+					return isSelf(path, args[0]);
+				case "isAncestor":
+					return isDescendant(((HippoBean) args[0]).getPath(), path);
+				case "isDescendant":
+					return isDescendant(path, ((HippoBean) args[0]).getPath());
+				default:
+					return null;
+			}
+		}));
+	}
+
+	private HippoBean register(final HippoBean bean) {
+		beansByIdentifier.put(bean.getIdentifier(), bean);
+		return bean;
+	}
+
+	private static String getIdentifier(final String path) {
+		return "id-" + path.hashCode();
+	}
+
+	private static String getName(final String path) {
+		return path.substring(path.lastIndexOf('/') + 1);
+	}
+
+	private static boolean isSelf(final String path, final Object other) {
+		return (other instanceof HippoBean) && path.equals(((HippoBean) other).getPath());
+	}
+
+	private static boolean isDescendant(final String path, final String ancestorPath) {
+		return path.startsWith(ancestorPath + "/");
+	}
+
+	private static ResolvedSiteMapItem createResolvedSiteMapItem(final String pathInfo) {
+		return stub(ResolvedSiteMapItem.class, (method, args) -> "getPathInfo".equals(method) ? pathInfo : null);
+	}
+
+	private static HstSiteMenuItem createMenuItem(final String name, final HstSiteMenuItem parent,
+			final ResolvedSiteMapItem resolvedSiteMapItem) {
+		final HstLink link = new MockHstLink(name);
+		return stub(HstSiteMenuItem.class, (method, args) -> {
+			switch (method) {
+				case "getName":
+					return name;
+				case "getHstLink":
+					return link;
+				case "getParentItem":
+					return parent;
+				case "resolveToSiteMapItem":
+					return resolvedSiteMapItem;
+				default:
+					return null;
+			}
+		});
+	}
+
+	private static HstLink createLink(final String path, final HstSiteMapItem siteMapItem, final Mount mount) {
+		return new MockHstLink(path.substring(CONTENT_BASE_PATH.length())) {
+			@Override
+			public HstSiteMapItem getHstSiteMapItem() {
+				return siteMapItem;
+			}
+
+			@Override
+			public Mount getMount() {
+				return mount;
+			}
+		};
+	}
+
+	/**
+	 * Document without a node: the provider tells documents from folders by their class, so unlike the folders it
+	 * cannot be a proxy.
+	 */
+	private static final class FixtureDocument extends HippoDocument {
+
+		private final String path;
+		private final String identifier;
+		private final String name;
+		private final HippoBean parent;
+
+		private FixtureDocument(final String path, final HippoBean parent) {
+			this.path = path;
+			this.identifier = BreadcrumbFixture.getIdentifier(path);
+			this.name = BreadcrumbFixture.getName(path);
+			this.parent = parent;
+		}
+
+		@Override
+		public String getPath() {
+			return path;
+		}
+
+		@Override
+		public String getCanonicalPath() {
+			return path;
+		}
+
+		@Override
+		public String getIdentifier() {
+			return identifier;
+		}
+
+		@Override
+		public String getCanonicalUUID() {
+			return identifier;
+		}
+
+		@Override
+		public String getName() {
+			return name;
+		}
+
+		@Override
+		public String getDisplayName() {
+			return name;
+		}
+
+		@Override
+		@SuppressWarnings("unchecked")
+		public <T extends HippoBean> T getParentBean() {
+			return (T) parent;
+		}
+
+		@Override
+		public boolean isSelf(final HippoBean bean) {
+			return BreadcrumbFixture.isSelf(path, bean);
+		}
+
+		@Override
+		public boolean equalCompare(final Object compare) {
+			return BreadcrumbFixture.isSelf(path, compare);
+		}
+
+		@Override
+		public boolean isAncestor(final HippoBean descendant) {
+			return BreadcrumbFixture.isDescendant(descendant.getPath(), path);
+		}
+
+		@Override
+		public boolean isDescendant(final HippoBean ancestor) {
+			return BreadcrumbFixture.isDescendant(path, ancestor.getPath());
+		}
+	}
+}
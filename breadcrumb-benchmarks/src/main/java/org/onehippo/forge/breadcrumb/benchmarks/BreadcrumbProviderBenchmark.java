@@ -0,0 +1,78 @@
+/*
+ * Copyright 2026 Bloomreach
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onehippo.forge.breadcrumb.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.onehippo.forge.breadcrumb.cache.AncestorIndex;
+import org.onehippo.forge.breadcrumb.cache.BreadcrumbCache;
+import org.onehippo.forge.breadcrumb.cache.LinkMemo;
+import org.onehippo.forge.breadcrumb.components.BreadcrumbProvider;
+import org.onehippo.forge.breadcrumb.om.Breadcrumb;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmark of {@link BreadcrumbProvider#getBreadcrumb(org.hippoecm.hst.core.component.HstRequest)} per menu depth,
+ * content depth and breadcrumb mode, with and without the cross-request caches.
+ * <p>
+ * Throughput and the sampled latency distribution (percentiles) are reported by the benchmark modes, the allocation
+ * rate by the GC profiler that {@link BreadcrumbBenchmarks} adds.
+ */
+@State(Scope.Thread)
+@BenchmarkMode({ Mode.Throughput, Mode.SampleTime })
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BreadcrumbProviderBenchmark {
+
+	@Param({ "1", "3" })
+	public int menuDepth;
+
+	@Param({ "2", "6", "12" })
+	public int contentDepth;
+
+	@Param({ "TRAILING_DOCUMENT_ONLY", "URL_BASED", "ANCESTOR_BASED", "CONTENT_BASED", "NOT_FOUND" })
+	public BreadcrumbFixture.Mode mode;
+
+	@Param({ "false", "true" })
+	public boolean cacheEnabled;
+
+	private BreadcrumbFixture fixture;
+
+	@Setup
+	public void setUp() {
+		BreadcrumbCache.getInstance().invalidateAll();
+		AncestorIndex.getInstance().invalidateAll();
+		LinkMemo.getInstance().invalidateAll();
+		fixture = new BreadcrumbFixture(mode, menuDepth, contentDepth, cacheEnabled);
+	}
+
+	@Benchmark
+	public Breadcrumb getBreadcrumb() {
+		return fixture.getProvider().getBreadcrumb(fixture.getRequest());
+	}
+}
@@ -0,0 +1,67 @@
+/*
+ * Copyright 2026 Bloomreach
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onehippo.forge.breadcrumb.benchmarks;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+
+/**
+ * Minimal stubs of HST interfaces, answering only the calls the breadcrumb provider makes.
+ */
+final class Stubs {
+
+	/**
+	 * Answers a call on a stub; returning null results in the default value of the return type.
+	 */
+	interface Answer {
+		Object answer(String method, Object[] args);
+	}
+
+	private Stubs() {
+	}
+
+	static <T> T stub(final Class<T> type, final Answer answer) {
+		final Object stub = Proxy.newProxyInstance(Stubs.class.getClassLoader(), new Class<?>[] { type },
+				(proxy, method, args) -> {
+					switch (method.getName()) {
+						case "equals":
+							return proxy == args[0];
+						case "hashCode":
+							return System.identityHashCode(proxy);
+						case "toString":
+							return type.getSimpleName() + "@" + Integer.toHexString(System.identityHashCode(proxy));
+						default:
+							final Object result = answer.answer(method.getName(), (args == null) ? new Object[0] : args);
+							return (result == null) ? defaultValue(method) : result;
+					}
+				});
+		return type.cast(stub);
+	}
+
+	private static Object defaultValue(final Method method) {
+		final Class<?> returnType = method.getReturnType();
+		if (returnType == boolean.class) {
+			return Boolean.FALSE;
+		}
+		if (returnType == int.class) {
+			return 0;
+		}
+		if (returnType == long.class) {
+			return 0L;
+		}
+		return null;
+	}
+}
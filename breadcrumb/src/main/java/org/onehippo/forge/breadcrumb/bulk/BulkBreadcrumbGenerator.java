@@ -0,0 +1,307 @@
+/*
+ * Copyright 2026 Bloomreach
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onehippo.forge.breadcrumb.bulk;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+import javax.jcr.Credentials;
+import javax.jcr.Node;
+import javax.jcr.Repository;
+import javax.jcr.RepositoryException;
+import javax.jcr.Session;
+
+import org.hippoecm.hst.configuration.hosting.Mount;
+import org.hippoecm.hst.content.beans.standard.HippoBean;
+import org.hippoecm.hst.core.linking.HstLink;
+import org.hippoecm.hst.core.linking.HstLinkCreator;
+import org.hippoecm.repository.api.HippoNodeType;
+import org.onehippo.forge.breadcrumb.cache.AncestorPrefetcher;
+import org.onehippo.forge.breadcrumb.cache.DetachedLink;
+import org.onehippo.forge.breadcrumb.components.BreadcrumbConfiguration;
+import org.onehippo.forge.breadcrumb.metrics.BreadcrumbMetrics;
+import org.onehippo.forge.breadcrumb.om.Breadcrumb;
+import org.onehippo.forge.breadcrumb.om.BreadcrumbItem;
+import org.onehippo.forge.breadcrumb.om.BreadcrumbNode;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Generates content based breadcrumbs for many documents outside of page rendering, e.g. for sitemaps, search
+ * feeds and structured data exports.
+ * <p>
+ * A breadcrumb consists of the folders from below the content root of the mount down to the document, like
+ * <code>breadcrumb-add-content-based</code> creates them; folders without a link, or with a link to the not found
+ * page, are skipped. Menus are request specific and therefore not part of bulk breadcrumbs.
+ * <p>
+ * Folder levels are memoized for the whole batch, so every folder is read and linked once however many documents
+ * it contains. The documents are divided over worker threads, each reading with its own JCR session. Links are
+ * created for the mount with {@link HstLinkCreator#create(Node, Mount)}.
+ * <p>
+ * Breadcrumbs that are to be retained, e.g. to keep a large site warm, are best generated as {@link BreadcrumbNode}s
+ * with {@link #generateNodes(Collection, BiConsumer)}: they do not refer to the HST model, and the breadcrumbs of
+ * the documents in a folder share the nodes of the folder levels.
+ */
+public class BulkBreadcrumbGenerator {
+
+	private static final Logger log = LoggerFactory.getLogger(BulkBreadcrumbGenerator.class);
+
+	private static final int BATCH_SIZE = 500;
+
+	private final Repository repository;
+	private final Credentials credentials;
+	private final HstLinkCreator linkCreator;
+	private final Mount mount;
+	private final BreadcrumbConfiguration configuration;
+	private int threads = 4;
+
+	/**
+	 * Constructor
+	 *
+	 * @param repository    repository to log in to, once per worker
+	 * @param credentials   credentials of the worker sessions
+	 * @param linkCreator   link creator of the site webapp
+	 * @param mount         live mount to create the links for, its content path being the root of the breadcrumbs
+	 * @param configuration provider configuration, of which the separator, link not found mode and trailing
+	 *                      document only settings apply
+	 */
+	public BulkBreadcrumbGenerator(final Repository repository, final Credentials credentials,
+			final HstLinkCreator linkCreator, final Mount mount, final BreadcrumbConfiguration configuration) {
+		this.repository = repository;
+		this.credentials = credentials;
+		this.linkCreator = linkCreator;
+		this.mount = mount;
+		this.configuration = configuration;
+	}
+
+	/**
+	 * @param threads number of worker threads, 4 by default
+	 */
+	public void setThreads(final int threads) {
+		this.threads = threads;
+	}
+
+	/**
+	 * Generates the breadcrumbs of beans.
+	 *
+	 * @param beans    document or folder beans below the content root of the mount
+	 * @param consumer receiver of the bean path and its breadcrumb, called from the worker threads
+	 * @return number of generated breadcrumbs
+	 * @see #generate(Collection, BiConsumer)
+	 */
+	public long generateForBeans(final Collection<? extends HippoBean> beans,
+			final BiConsumer<String, Breadcrumb> consumer) {
+		final List<String> paths = new ArrayList<>(beans.size());
+		for (HippoBean bean : beans) {
+			paths.add(bean.getPath());
+		}
+		return generate(paths, consumer);
+	}
+
+	/**
+	 * Generates the breadcrumbs of nodes, passing each to the consumer as soon as it is ready. Paths that do not
+	 * exist or are outside the content root of the mount are skipped.
+	 * <p>
+	 * The consumer is called concurrently from the worker threads, so it must be thread safe. The breadcrumbs do
+	 * not share link instances, so they may be modified by the consumer.
+	 *
+	 * @param paths    absolute paths of document handles, document variants or folders
+	 * @param consumer receiver of the path and its breadcrumb, called from the worker threads
+	 * @return number of generated breadcrumbs
+	 */
+	public long generate(final Collection<String> paths, final BiConsumer<String, Breadcrumb> consumer) {
+		return generate(paths, Function.identity(), consumer);
+	}
+
+	/**
+	 * Generates the breadcrumbs of nodes in their compact form, passing the last {@link BreadcrumbNode} of each to the
+	 * consumer as soon as it is ready. Breadcrumbs without items are skipped.
+	 * <p>
+	 * The consumer is called concurrently from the worker threads, so it must be thread safe.
+	 *
+	 * @param paths    absolute paths of document handles, document variants or folders
+	 * @param consumer receiver of the path and the last node of its breadcrumb, called from the worker threads
+	 * @return number of generated breadcrumbs
+	 * @see #generate(Collection, BiConsumer)
+	 */
+	public long generateNodes(final Collection<String> paths, final BiConsumer<String, BreadcrumbNode> consumer) {
+		return generate(paths, BreadcrumbNode::of, consumer);
+	}
+
+	private <T> long generate(final Collection<String> paths, final Function<Breadcrumb, T> converter,
+			final BiConsumer<String, T> consumer) {
+		// documents of the same folder go to the same batch, so the folder memo is warm for most of them
+		final List<String> sorted = new ArrayList<>(paths);
+		Collections.sort(sorted);
+
+		final Map<String, Level> levels = new ConcurrentHashMap<>();
+		final LongAdder count = new LongAdder();
+		final AtomicInteger threadCount = new AtomicInteger();
+		final ExecutorService executor = Executors.newFixedThreadPool(threads, runnable -> {
+			final Thread thread = new Thread(runnable, "breadcrumb-bulk-" + threadCount.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		});
+
+		try {
+			final List<CompletableFuture<Void>> batches = new ArrayList<>();
+			for (int i = 0; i < sorted.size(); i += BATCH_SIZE) {
+				final List<String> batch = sorted.subList(i, Math.min(i + BATCH_SIZE, sorted.size()));
+				batches.add(CompletableFuture.runAsync(() -> generateBatch(batch, levels, converter, consumer, count),
+						executor));
+			}
+			CompletableFuture.allOf(batches.toArray(new CompletableFuture[0])).join();
+		} catch (CompletionException e) {
+			throw (e.getCause() instanceof RuntimeException) ? (RuntimeException) e.getCause() : e;
+		} finally {
+			executor.shutdownNow();
+		}
+
+		log.info("Generated {} breadcrumbs reading {} folders", count.sum(), levels.size());
+		return count.sum();
+	}
+
+	private <T> void generateBatch(final List<String> paths, final Map<String, Level> levels,
+			final Function<Breadcrumb, T> converter, final BiConsumer<String, T> consumer, final LongAdder count) {
+		Session session = null;
+		try {
+			session = repository.login(credentials);
+			for (String path : paths) {
+				try {
+					final Breadcrumb breadcrumb = createBreadcrumb(session, path, levels);
+					final T result = (breadcrumb == null) ? null : converter.apply(breadcrumb);
+					if (result != null) {
+						consumer.accept(path, result);
+						count.increment();
+					}
+				} catch (RepositoryException e) {
+					log.warn("Cannot generate breadcrumb of {}: {}", path, e.toString());
+				}
+			}
+		} catch (RepositoryException e) {
+			log.warn("Cannot log in for generating breadcrumbs: {}", e.toString());
+		} finally {
+			if (session != null) {
+				session.logout();
+			}
+		}
+	}
+
+	private Breadcrumb createBreadcrumb(final Session session, final String path, final Map<String, Level> levels)
+			throws RepositoryException {
+		final String rootPath = mount.getContentPath();
+		if (!path.startsWith(rootPath + "/") || !session.nodeExists(path)) {
+			return null;
+		}
+
+		Node node = session.getNode(path);
+		if (node.isNodeType(HippoNodeType.NT_HANDLE)) {
+			if (!node.hasNode(node.getName())) {
+				return null;
+			}
+			node = node.getNode(node.getName());
+		}
+
+		final List<BreadcrumbItem> items = new ArrayList<>();
+		final Node parent = node.getParent();
+		final boolean document = parent.isNodeType(HippoNodeType.NT_HANDLE);
+		if (!configuration.isAddTrailingDocumentOnly()) {
+			final Level folder = getLevel(session, document ? parent.getParent().getPath() : parent.getPath(),
+					rootPath, levels);
+			if (folder != null) {
+				folder.addItems(items);
+			}
+		}
+		if (document || !configuration.isAddTrailingDocumentOnly()) {
+			final HstLink link = createLink(node);
+			if (link != null) {
+				items.add(new BreadcrumbItem(link, AncestorPrefetcher.getDisplayName(node)));
+			}
+		}
+
+		BreadcrumbMetrics.getInstance().recordBreadcrumb(items.size());
+		return new Breadcrumb(items, configuration.getSeparator(), configuration.getLinkNotFoundMode());
+	}
+
+	/**
+	 * Returns the memoized level of a folder, reading and linking it and its ancestors up to the root on a miss.
+	 *
+	 * @return level, or null for the root and anything above
+	 */
+	private Level getLevel(final Session session, final String path, final String rootPath,
+			final Map<String, Level> levels) throws RepositoryException {
+		if (!path.startsWith(rootPath + "/")) {
+			return null;
+		}
+
+		Level level = levels.get(path);
+		if (level == null) {
+			// not computeIfAbsent: the parent is resolved recursively through the same map
+			final Node folder = session.getNode(path);
+			final Level parent = getLevel(session, folder.getParent().getPath(), rootPath, levels);
+			final HstLink link = createLink(folder);
+			level = new Level(parent, (link == null) ? null : new DetachedLink(link),
+					AncestorPrefetcher.getDisplayName(folder));
+			final Level existing = levels.putIfAbsent(path, level);
+			if (existing != null) {
+				level = existing;
+			}
+		}
+		return level;
+	}
+
+	private HstLink createLink(final Node node) {
+		BreadcrumbMetrics.getInstance().recordLinkCreated();
+		return linkCreator.create(node, mount);
+	}
+
+	/**
+	 * Memoized folder level, pointing to its parent level.
+	 */
+	private static final class Level {
+
+		private final Level parent;
+		private final DetachedLink link;
+		private final String title;
+
+		private Level(final Level parent, final DetachedLink link, final String title) {
+			this.parent = parent;
+			this.link = link;
+			this.title = title;
+		}
+
+		private void addItems(final List<BreadcrumbItem> items) {
+			if (parent != null) {
+				parent.addItems(items);
+			}
+			if (link != null && !link.isNotFound()) {
+				items.add(new BreadcrumbItem(link.toLink(), title));
+			}
+		}
+	}
+}
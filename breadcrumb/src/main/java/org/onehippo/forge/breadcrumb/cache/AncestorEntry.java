@@ -0,0 +1,83 @@
+/*
+ * Copyright 2026 Bloomreach
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onehippo.forge.breadcrumb.cache;
+
+import org.hippoecm.hst.content.beans.standard.HippoBean;
+
+/**
+ * Immutable entry of the {@link AncestorIndex}: what a breadcrumb needs to know about one content node.
+ */
+public final class AncestorEntry {
+
+	private final String identifier;
+	private final String parentIdentifier;
+	private final String displayName;
+	private final String path;
+
+	public AncestorEntry(final String identifier, final String parentIdentifier, final String displayName,
+			final String path) {
+		this.identifier = identifier;
+		this.parentIdentifier = parentIdentifier;
+		this.displayName = displayName;
+		this.path = path;
+	}
+
+	/**
+	 * Creates the entry of a bean.
+	 *
+	 * @param bean       bean to create the entry for
+	 * @param parentBean parent bean of the bean, or null if it has none
+	 * @return entry
+	 */
+	public static AncestorEntry of(final HippoBean bean, final HippoBean parentBean) {
+		return new AncestorEntry(bean.getIdentifier(), (parentBean == null) ? null : parentBean.getIdentifier(),
+				bean.getDisplayName(), bean.getPath());
+	}
+
+	/**
+	 * @return identifier of the node
+	 */
+	public String getIdentifier() {
+		return identifier;
+	}
+
+	/**
+	 * @return identifier of the parent bean's node, or null if the node has no parent bean
+	 */
+	public String getParentIdentifier() {
+		return parentIdentifier;
+	}
+
+	/**
+	 * @return display name of the bean
+	 */
+	public String getDisplayName() {
+		return displayName;
+	}
+
+	/**
+	 * @return canonical path of the bean
+	 */
+	public String getPath() {
+		return path;
+	}
+
+	@Override
+	public String toString() {
+		return super.toString() + "[identifier=" + identifier + ", parentIdentifier=" + parentIdentifier
+				+ ", displayName=" + displayName + ", path=" + path + "]";
+	}
+}
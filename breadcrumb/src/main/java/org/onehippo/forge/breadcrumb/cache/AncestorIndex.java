@@ -0,0 +1,122 @@
+/*
+ * Copyright 2026 Bloomreach
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onehippo.forge.breadcrumb.cache;
+
+import org.hippoecm.hst.site.HstServices;
+import org.onehippo.forge.breadcrumb.metrics.BreadcrumbMetrics;
+
+/**
+ * Bounded, thread-safe index from node identifier to {@link AncestorEntry}, shared by all breadcrumb providers of a
+ * site webapp.
+ * <p>
+ * The index is filled lazily while breadcrumb providers walk up the content tree, so that later walks through the
+ * same folders can be done without loading parent beans. Entries are evicted by subtree on content changes, see
+ * {@link #invalidateSubtree(String)}. Its maximum size is configured by the HST container
+ * property {@value #MAX_SIZE_PROPERTY}.
+ */
+public final class AncestorIndex {
+
+	public static final String MAX_SIZE_PROPERTY = "breadcrumb.ancestorIndex.maxSize";
+	public static final int DEFAULT_MAX_SIZE = 50000;
+
+	private static final AncestorIndex INSTANCE = new AncestorIndex(getConfiguredMaxSize());
+
+	private final PathIndexedCache<String, AncestorEntry> entries;
+
+	public AncestorIndex(final long maxSize) {
+		this.entries = new PathIndexedCache<>(maxSize, AncestorEntry::getPath);
+	}
+
+	/**
+	 * Returns the index shared within the site webapp.
+	 *
+	 * @return shared ancestor index
+	 */
+	public static AncestorIndex getInstance() {
+		return INSTANCE;
+	}
+
+	/**
+	 * Returns the entry of a node.
+	 *
+	 * @param identifier node identifier, may be null
+	 * @return the entry, or null if the node is not indexed
+	 */
+	public AncestorEntry get(final String identifier) {
+		if (identifier == null) {
+			return null;
+		}
+		final AncestorEntry entry = entries.getIfPresent(identifier);
+		if (entry != null) {
+			BreadcrumbMetrics.getInstance().recordHit(BreadcrumbMetrics.CacheType.ANCESTOR_INDEX);
+		} else {
+			BreadcrumbMetrics.getInstance().recordMiss(BreadcrumbMetrics.CacheType.ANCESTOR_INDEX);
+		}
+		return entry;
+	}
+
+	/**
+	 * Adds or replaces the entry of a node.
+	 *
+	 * @param entry entry to add
+	 */
+	public void put(final AncestorEntry entry) {
+		entries.put(entry.getIdentifier(), entry);
+	}
+
+	/**
+	 * Removes the entry of a node.
+	 *
+	 * @param identifier node identifier
+	 */
+	public void invalidate(final String identifier) {
+		entries.invalidate(identifier);
+	}
+
+	/**
+	 * Removes the entries of a node and of all nodes below it.
+	 *
+	 * @param path absolute path of the node
+	 * @return number of removed entries
+	 */
+	public int invalidateSubtree(final String path) {
+		return entries.invalidateSubtree(path);
+	}
+
+	/**
+	 * Removes all entries.
+	 */
+	public void invalidateAll() {
+		entries.invalidateAll();
+	}
+
+	/**
+	 * Returns the number of indexed nodes.
+	 *
+	 * @return approximate number of entries
+	 */
+	public long size() {
+		return entries.size();
+	}
+
+	private static int getConfiguredMaxSize() {
+		if (HstServices.isAvailable()) {
+			return HstServices.getComponentManager().getContainerConfiguration()
+					.getInt(MAX_SIZE_PROPERTY, DEFAULT_MAX_SIZE);
+		}
+		return DEFAULT_MAX_SIZE;
+	}
+}
@@ -0,0 +1,90 @@
+/*
+ * Copyright 2026 Bloomreach
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onehippo.forge.breadcrumb.cache;
+
+import javax.jcr.Node;
+import javax.jcr.RepositoryException;
+import javax.jcr.Session;
+
+import org.hippoecm.repository.api.HippoNode;
+import org.hippoecm.repository.api.HippoNodeType;
+
+/**
+ * Fills an {@link AncestorIndex} from plain JCR nodes, without a request or beans, so it can run on any thread with
+ * its own session.
+ * <p>
+ * The entries are equal to the ones a breadcrumb walk would create from beans: documents are indexed by the
+ * variant readable by the session with the handle's folder as parent, and folders by their own node.
+ */
+public final class AncestorPrefetcher {
+
+	private AncestorPrefetcher() {
+	}
+
+	/**
+	 * Indexes the node at a path and its ancestors, up to and including the node at the stop path.
+	 *
+	 * @param session  JCR session to read with
+	 * @param path     absolute path of a document handle or folder
+	 * @param stopPath absolute path of the highest node to index, normally the mount content path
+	 * @param index    index to fill
+	 * @return number of entries added
+	 * @throws RepositoryException on repository errors
+	 */
+	public static int prefetch(final Session session, final String path, final String stopPath,
+			final AncestorIndex index) throws RepositoryException {
+		if (!session.nodeExists(path)) {
+			return 0;
+		}
+
+		int count = 0;
+		Node node = session.getNode(path);
+		if (node.isNodeType(HippoNodeType.NT_HANDLE)) {
+			final Node parent = node.getParent();
+			if (node.hasNode(node.getName())) {
+				final Node variant = node.getNode(node.getName());
+				index.put(new AncestorEntry(variant.getIdentifier(), parent.getIdentifier(), getDisplayName(variant),
+						variant.getPath()));
+				count++;
+			}
+			node = parent;
+		}
+
+		while (node != null) {
+			final Node parent = (node.getDepth() == 0) ? null : node.getParent();
+			index.put(new AncestorEntry(node.getIdentifier(), (parent == null) ? null : parent.getIdentifier(),
+					getDisplayName(node), node.getPath()));
+			count++;
+
+			if (node.getPath().equals(stopPath)) {
+				break;
+			}
+			node = parent;
+		}
+		return count;
+	}
+
+	/**
+	 * Returns the display name of a node, like {@code HippoBean#getDisplayName()} does.
+	 *
+	 * @param node JCR node
+	 * @return display name
+	 * @throws RepositoryException on repository errors
+	 */
+	public static String getDisplayName(final Node node) throws RepositoryException {
+		return (node instanceof HippoNode) ? ((HippoNode) node).getDisplayName() : node.getName();
+	}
+}
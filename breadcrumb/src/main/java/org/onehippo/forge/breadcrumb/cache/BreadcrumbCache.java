@@ -0,0 +1,329 @@
+/*
+ * Copyright 2026 Bloomreach
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onehippo.forge.breadcrumb.cache;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.hippoecm.hst.configuration.hosting.Mount;
+import org.hippoecm.hst.core.request.HstRequestContext;
+import org.hippoecm.hst.site.HstServices;
+import org.onehippo.forge.breadcrumb.metrics.BreadcrumbMetrics;
+import org.onehippo.forge.breadcrumb.om.Breadcrumb;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Bounded cache of generated breadcrumbs, shared by all breadcrumb providers of a site webapp.
+ * <p>
+ * Breadcrumbs are cached per {@link LinkScope}, so one breadcrumb serves all mounts of a scope. Since breadcrumb
+ * items and links are mutable, the cache stores a {@link DetachedBreadcrumb} and hands out a new breadcrumb with new
+ * items and links, rendered for the request mount, on every hit. A breadcrumb with links out of the scope, such as
+ * cross channel links, only serves the mount it was generated for.
+ * <p>
+ * Entries are evicted by size, the maximum being configured by the HST container property
+ * {@value #MAX_SIZE_PROPERTY}. All entries are dropped when the HST model is reloaded, because cached breadcrumbs
+ * hold links into the model they were created with; this includes menu changes. Entries are also indexed by the
+ * content path they were generated for, so a change to content evicts the breadcrumbs of that content and of the
+ * content below it only, see {@link #invalidateSubtree(String)}. With stale-while-revalidate enabled, such a change
+ * marks the breadcrumbs stale instead, see {@link BreadcrumbRevalidator}. On a miss, a breadcrumb restored from a
+ * {@link BreadcrumbSnapshot} of an earlier run is cached if there is one.
+ * <p>
+ * With property {@value #OFF_HEAP_MAX_BYTES_PROPERTY} set to a number of bytes, breadcrumbs that serve all mounts of
+ * their scope are also stored in an {@link OffHeapBreadcrumbStore}, from which they are decoded on a miss. The on-heap
+ * cache can then be kept small for the most requested breadcrumbs, while those of the whole site stay resident.
+ */
+public final class BreadcrumbCache {
+
+	private static final Logger log = LoggerFactory.getLogger(BreadcrumbCache.class);
+
+	public static final String MAX_SIZE_PROPERTY = "breadcrumb.cache.maxSize";
+	public static final int DEFAULT_MAX_SIZE = 10000;
+	public static final String OFF_HEAP_MAX_BYTES_PROPERTY = "breadcrumb.cache.offHeap.maxBytes";
+
+	private static final BreadcrumbCache INSTANCE = new BreadcrumbCache(getConfiguredMaxSize(),
+			getConfiguredOffHeapMaxBytes());
+
+	private final ModelScoped<PathIndexedCache<BreadcrumbCacheKey, Entry>> caches;
+	// null if there is no off-heap tier
+	private final ModelScoped<OffHeapBreadcrumbStore> offHeapStores;
+
+	public BreadcrumbCache(final long maxSize) {
+		this(maxSize, 0L);
+	}
+
+	/**
+	 * Constructor
+	 *
+	 * @param maxSize         maximum number of breadcrumbs on the heap
+	 * @param offHeapMaxBytes maximum number of bytes of the off-heap tier, 0 or less for none
+	 */
+	public BreadcrumbCache(final long maxSize, final long offHeapMaxBytes) {
+		this.caches = new ModelScoped<>(() -> new PathIndexedCache<>(maxSize, entry -> entry.contentPath));
+		this.offHeapStores = (offHeapMaxBytes <= 0L) ? null
+				: new ModelScoped<>(() -> new OffHeapBreadcrumbStore(offHeapMaxBytes));
+	}
+
+	/**
+	 * Returns the cache shared within the site webapp.
+	 *
+	 * @return shared breadcrumb cache
+	 */
+	public static BreadcrumbCache getInstance() {
+		return INSTANCE;
+	}
+
+	/**
+	 * Returns the cached breadcrumb for a key.
+	 *
+	 * @param requestContext HST request context, determining the model generation
+	 * @param key            cache key
+	 * @return new breadcrumb with links for the request mount, owned by the caller, or null if not cached
+	 */
+	public Breadcrumb getIfPresent(final HstRequestContext requestContext, final BreadcrumbCacheKey key) {
+		final Entry entry = caches.get(requestContext).getIfPresent(key);
+		final Mount mount = requestContext.getResolvedMount().getMount();
+		if (entry == null) {
+			final Breadcrumb restored = restore(requestContext, key, mount);
+			if (restored != null) {
+				BreadcrumbMetrics.getInstance().recordHit(BreadcrumbMetrics.CacheType.BREADCRUMB_CACHE);
+				return restored;
+			}
+		}
+		if (entry == null || !entry.isUsableFor(mount) || (entry.stale != null && !entry.stale.isServable())) {
+			BreadcrumbMetrics.getInstance().recordMiss(BreadcrumbMetrics.CacheType.BREADCRUMB_CACHE);
+			return null;
+		}
+		BreadcrumbMetrics.getInstance().recordHit(BreadcrumbMetrics.CacheType.BREADCRUMB_CACHE);
+		if (entry.stale != null) {
+			BreadcrumbMetrics.getInstance().recordStaleBreadcrumbServed();
+		}
+		return entry.breadcrumb.toBreadcrumb(mount);
+	}
+
+	/**
+	 * Whether the cached breadcrumb for a key is stale, i.e. its content changed and it is being revalidated.
+	 *
+	 * @param requestContext HST request context, determining the model generation
+	 * @param key            cache key
+	 * @return true if a stale breadcrumb is cached
+	 */
+	public boolean isStale(final HstRequestContext requestContext, final BreadcrumbCacheKey key) {
+		final Entry entry = caches.get(requestContext).getIfPresent(key);
+		return entry != null && entry.stale != null;
+	}
+
+	/**
+	 * Caches a detached copy of a breadcrumb.
+	 *
+	 * @param requestContext HST request context, determining the model generation
+	 * @param key            cache key
+	 * @param contentPath    absolute path of the content the breadcrumb was generated for, null if none
+	 * @param breadcrumb     generated breadcrumb
+	 * @return the given breadcrumb, which the cache does not refer to
+	 */
+	public Breadcrumb put(final HstRequestContext requestContext, final BreadcrumbCacheKey key,
+			final String contentPath, final Breadcrumb breadcrumb) {
+		final Entry entry = new Entry(new DetachedBreadcrumb(breadcrumb), requestContext.getResolvedMount().getMount(),
+				contentPath);
+		caches.get(requestContext).put(key, entry);
+		if (offHeapStores != null) {
+			final OffHeapBreadcrumbStore store = offHeapStores.get(requestContext);
+			if (entry.shared) {
+				store.put(key, contentPath, breadcrumb);
+			} else {
+				store.invalidate(key);
+			}
+		}
+		log.debug("Cached breadcrumb for {}", key);
+		return breadcrumb;
+	}
+
+	/**
+	 * Removes the breadcrumbs generated for content at or below a path, or marks them stale if the
+	 * {@link BreadcrumbRevalidator} is enabled.
+	 *
+	 * @param path absolute repository path
+	 * @return number of removed or stale breadcrumbs
+	 */
+	public int invalidateSubtree(final String path) {
+		// every model generation still serving requests is invalidated, not only the latest one
+		int count = 0;
+		if (offHeapStores != null) {
+			// off-heap breadcrumbs are removed rather than marked stale; they are stored again when regenerated
+			for (OffHeapBreadcrumbStore store : offHeapStores.values()) {
+				count += store.invalidateSubtree(path);
+			}
+		}
+		final BreadcrumbRevalidator revalidator = BreadcrumbRevalidator.getInstance();
+		for (PathIndexedCache<BreadcrumbCacheKey, Entry> cache : caches.values()) {
+			if (!revalidator.isEnabled()) {
+				count += cache.invalidateSubtree(path);
+				continue;
+			}
+			final List<Entry> entries = cache.getSubtree(path);
+			for (Entry entry : entries) {
+				entry.markStale(revalidator);
+			}
+			count += entries.size();
+		}
+		return count;
+	}
+
+	/**
+	 * Removes all cached breadcrumbs.
+	 */
+	public void invalidateAll() {
+		for (PathIndexedCache<BreadcrumbCacheKey, Entry> cache : caches.values()) {
+			cache.invalidateAll();
+		}
+		if (offHeapStores != null) {
+			for (OffHeapBreadcrumbStore store : offHeapStores.values()) {
+				store.invalidateAll();
+			}
+		}
+	}
+
+	/**
+	 * Returns the number of cached breadcrumbs.
+	 *
+	 * @return approximate number of entries of the current model generation
+	 */
+	public long size() {
+		final PathIndexedCache<BreadcrumbCacheKey, Entry> cache = caches.peek();
+		return (cache == null) ? 0 : cache.size();
+	}
+
+	/**
+	 * Passes the cached breadcrumbs that serve all mounts of their scope and are not stale to a consumer, those on the
+	 * heap first, then those of the off-heap tier. A key may be passed twice.
+	 *
+	 * @param consumer receiver of the key, content path and breadcrumb of the entries
+	 */
+	void forEachShared(final EntryConsumer consumer) {
+		final PathIndexedCache<BreadcrumbCacheKey, Entry> cache = caches.peek();
+		if (cache != null) {
+			for (Map.Entry<BreadcrumbCacheKey, Entry> mapEntry : cache.asMap().entrySet()) {
+				final Entry entry = mapEntry.getValue();
+				if (entry.shared && entry.stale == null) {
+					consumer.accept(mapEntry.getKey(), entry.contentPath, entry.breadcrumb.toBreadcrumb());
+				}
+			}
+		}
+		final OffHeapBreadcrumbStore store = (offHeapStores == null) ? null : offHeapStores.peek();
+		if (store != null) {
+			store.forEach(consumer);
+		}
+	}
+
+	/**
+	 * Restores a breadcrumb that is not on the heap from the off-heap tier or from the loaded snapshot, caching it on
+	 * the heap.
+	 */
+	private Breadcrumb restore(final HstRequestContext requestContext, final BreadcrumbCacheKey key,
+			final Mount mount) {
+		if (offHeapStores != null) {
+			final BreadcrumbSnapshot.Restored stored = offHeapStores.get(requestContext).get(key, mount);
+			if (stored != null) {
+				BreadcrumbMetrics.getInstance().recordHit(BreadcrumbMetrics.CacheType.OFF_HEAP_STORE);
+				// the decoded breadcrumb is handed out, the cache keeps a detached copy
+				caches.get(requestContext).put(key,
+						new Entry(new DetachedBreadcrumb(stored.breadcrumb), mount, stored.contentPath));
+				return stored.breadcrumb;
+			}
+			BreadcrumbMetrics.getInstance().recordMiss(BreadcrumbMetrics.CacheType.OFF_HEAP_STORE);
+		}
+		final BreadcrumbSnapshot.Restored restored = BreadcrumbSnapshot.getInstance().restore(requestContext, key,
+				mount);
+		return (restored == null) ? null : put(requestContext, key, restored.contentPath, restored.breadcrumb);
+	}
+
+	private static int getConfiguredMaxSize() {
+		if (HstServices.isAvailable()) {
+			return HstServices.getComponentManager().getContainerConfiguration()
+					.getInt(MAX_SIZE_PROPERTY, DEFAULT_MAX_SIZE);
+		}
+		return DEFAULT_MAX_SIZE;
+	}
+
+	@FunctionalInterface
+	interface EntryConsumer {
+
+		void accept(BreadcrumbCacheKey key, String contentPath, Breadcrumb breadcrumb);
+	}
+
+	private static long getConfiguredOffHeapMaxBytes() {
+		if (HstServices.isAvailable()) {
+			return HstServices.getComponentManager().getContainerConfiguration()
+					.getLong(OFF_HEAP_MAX_BYTES_PROPERTY, 0L);
+		}
+		return 0L;
+	}
+
+	private static final class Entry {
+
+		private final DetachedBreadcrumb breadcrumb;
+		private final Mount mount;
+		private final String contentPath;
+		// false if a link leads out of the scope of the mount, so the breadcrumb only serves that mount
+		private final boolean shared;
+		private volatile Stale stale;
+
+		private Entry(final DetachedBreadcrumb breadcrumb, final Mount mount, final String contentPath) {
+			this.breadcrumb = breadcrumb;
+			this.mount = mount;
+			this.contentPath = contentPath;
+			this.shared = breadcrumb.isInScope(LinkScope.of(mount));
+		}
+
+		private boolean isUsableFor(final Mount requestMount) {
+			return shared || requestMount == mount;
+		}
+
+		private synchronized void markStale(final BreadcrumbRevalidator revalidator) {
+			// staleness counts from the first change; later changes are read by the regeneration anyway
+			if (stale == null) {
+				stale = new Stale(revalidator, revalidator.revalidate(mount, contentPath));
+			}
+		}
+	}
+
+	private static final class Stale {
+
+		private final BreadcrumbRevalidator revalidator;
+		private final long sinceNanos = System.nanoTime();
+		private final CompletableFuture<Void> revalidation;
+		private final AtomicBoolean regenerating = new AtomicBoolean();
+
+		private Stale(final BreadcrumbRevalidator revalidator, final CompletableFuture<Void> revalidation) {
+			this.revalidator = revalidator;
+			this.revalidation = revalidation;
+		}
+
+		/**
+		 * Whether the stale breadcrumb is to be served. It is not if it is too old, and not to the one request that
+		 * regenerates it after the revalidation is done.
+		 */
+		private boolean isServable() {
+			if (!revalidator.isServable(sinceNanos)) {
+				return false;
+			}
+			return !(revalidation.isDone() && regenerating.compareAndSet(false, true));
+		}
+	}
+}
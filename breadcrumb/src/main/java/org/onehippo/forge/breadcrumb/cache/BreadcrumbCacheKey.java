@@ -0,0 +1,159 @@
+/*
+ * Copyright 2026 Bloomreach
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onehippo.forge.breadcrumb.cache;
+
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+import org.onehippo.forge.breadcrumb.components.BreadcrumbProvider;
+
+/**
+ * Key of a cached breadcrumb: everything that determines the outcome of
+ * {@link BreadcrumbProvider#getBreadcrumb(org.hippoecm.hst.core.component.HstRequest)} for a live request, apart from
+ * the mount the links are rendered for. The {@link LinkScope} of the mount is part of the key instead. The component
+ * class is part of the key too, as it resolves the bean of a sitemap item and may override that resolution.
+ */
+public final class BreadcrumbCacheKey {
+
+	private final String providerClassName;
+	private final String componentClassName;
+	private final LinkScope linkScope;
+	private final String pathInfo;
+	private final List<String> menuNames;
+	private final String separator;
+	private final BreadcrumbProvider.LinkNotFoundMode linkNotFoundMode;
+	private final boolean addTrailingDocumentOnly;
+	private final boolean addContentBased;
+	private final int maxDepth;
+	private final int collapseHead;
+	private final int hashCode;
+
+	public BreadcrumbCacheKey(final String providerClassName, final String componentClassName,
+			final LinkScope linkScope, final String pathInfo, final List<String> menuNames, final String separator,
+			final BreadcrumbProvider.LinkNotFoundMode linkNotFoundMode, final boolean addTrailingDocumentOnly,
+			final boolean addContentBased, final int maxDepth, final int collapseHead) {
+		this.providerClassName = providerClassName;
+		this.componentClassName = componentClassName;
+		this.linkScope = linkScope;
+		this.pathInfo = pathInfo;
+		this.menuNames = List.copyOf(menuNames);
+		this.separator = separator;
+		this.linkNotFoundMode = linkNotFoundMode;
+		this.addTrailingDocumentOnly = addTrailingDocumentOnly;
+		this.addContentBased = addContentBased;
+		this.maxDepth = maxDepth;
+		this.collapseHead = collapseHead;
+		// computed without Objects.hash, which allocates a varargs array, as a key is created for every request
+		int hash = Objects.hashCode(providerClassName);
+		hash = 31 * hash + Objects.hashCode(componentClassName);
+		hash = 31 * hash + Objects.hashCode(linkScope);
+		hash = 31 * hash + Objects.hashCode(pathInfo);
+		hash = 31 * hash + this.menuNames.hashCode();
+		hash = 31 * hash + Objects.hashCode(separator);
+		hash = 31 * hash + Objects.hashCode(linkNotFoundMode);
+		hash = 31 * hash + Boolean.hashCode(addTrailingDocumentOnly);
+		hash = 31 * hash + Boolean.hashCode(addContentBased);
+		hash = 31 * hash + maxDepth;
+		this.hashCode = 31 * hash + collapseHead;
+	}
+
+	public LinkScope getLinkScope() {
+		return linkScope;
+	}
+
+	public String getPathInfo() {
+		return pathInfo;
+	}
+
+	void write(final DataOutput out) throws IOException {
+		BreadcrumbCodec.writeString(out, providerClassName);
+		BreadcrumbCodec.writeString(out, componentClassName);
+		linkScope.write(out);
+		BreadcrumbCodec.writeString(out, pathInfo);
+		BreadcrumbCodec.writeVarInt(out, menuNames.size());
+		for (String menuName : menuNames) {
+			BreadcrumbCodec.writeString(out, menuName);
+		}
+		BreadcrumbCodec.writeString(out, separator);
+		BreadcrumbCodec.writeString(out, (linkNotFoundMode == null) ? null : linkNotFoundMode.name());
+		out.writeBoolean(addTrailingDocumentOnly);
+		out.writeBoolean(addContentBased);
+		BreadcrumbCodec.writeVarInt(out, maxDepth);
+		BreadcrumbCodec.writeVarInt(out, collapseHead);
+	}
+
+	static BreadcrumbCacheKey read(final ByteBuffer in) {
+		final String providerClassName = BreadcrumbCodec.readString(in);
+		final String componentClassName = BreadcrumbCodec.readString(in);
+		final LinkScope linkScope = LinkScope.read(in);
+		final String pathInfo = BreadcrumbCodec.readString(in);
+		final int menuCount = BreadcrumbCodec.readVarInt(in);
+		final List<String> menuNames = new ArrayList<>(menuCount);
+		for (int i = 0; i < menuCount; i++) {
+			menuNames.add(BreadcrumbCodec.readString(in));
+		}
+		final String separator = BreadcrumbCodec.readString(in);
+		final BreadcrumbProvider.LinkNotFoundMode linkNotFoundMode =
+				BreadcrumbProvider.LinkNotFoundMode.safeValueOf(BreadcrumbCodec.readString(in));
+		final boolean addTrailingDocumentOnly = in.get() != 0;
+		final boolean addContentBased = in.get() != 0;
+		final int maxDepth = BreadcrumbCodec.readVarInt(in);
+		final int collapseHead = BreadcrumbCodec.readVarInt(in);
+		return new BreadcrumbCacheKey(providerClassName, componentClassName, linkScope, pathInfo, menuNames, separator,
+				linkNotFoundMode, addTrailingDocumentOnly, addContentBased, maxDepth, collapseHead);
+	}
+
+	@Override
+	public boolean equals(final Object o) {
+		if (this == o) {
+			return true;
+		}
+		if (!(o instanceof BreadcrumbCacheKey)) {
+			return false;
+		}
+
+		final BreadcrumbCacheKey that = (BreadcrumbCacheKey) o;
+		return hashCode == that.hashCode
+				&& addTrailingDocumentOnly == that.addTrailingDocumentOnly
+				&& addContentBased == that.addContentBased
+				&& maxDepth == that.maxDepth
+				&& collapseHead == that.collapseHead
+				&& linkNotFoundMode == that.linkNotFoundMode
+				&& Objects.equals(pathInfo, that.pathInfo)
+				&& Objects.equals(linkScope, that.linkScope)
+				&& Objects.equals(menuNames, that.menuNames)
+				&& Objects.equals(separator, that.separator)
+				&& Objects.equals(providerClassName, that.providerClassName)
+				&& Objects.equals(componentClassName, that.componentClassName);
+	}
+
+	@Override
+	public int hashCode() {
+		return hashCode;
+	}
+
+	@Override
+	public String toString() {
+		return super.toString() + "[component=" + componentClassName + ", linkScope=" + linkScope + ", pathInfo="
+				+ pathInfo + ", menus=" + menuNames + ", separator=" + separator + ", linkNotFoundMode=" + linkNotFoundMode + ", addTrailingDocumentOnly="
+				+ addTrailingDocumentOnly + ", addContentBased=" + addContentBased + ", maxDepth=" + maxDepth
+				+ ", collapseHead=" + collapseHead + "]";
+	}
+}
@@ -0,0 +1,153 @@
+/*
+ * Copyright 2026 Bloomreach
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onehippo.forge.breadcrumb.cache;
+
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import org.hippoecm.hst.configuration.hosting.Mount;
+import org.onehippo.forge.breadcrumb.om.Breadcrumb;
+import org.onehippo.forge.breadcrumb.om.BreadcrumbNode;
+
+/**
+ * Compact binary form of breadcrumbs, independent of the HST model.
+ * <p>
+ * A breadcrumb is written as its separator and link not found mode followed by its items, the first item first,
+ * each being a flags byte and its title, link path, link type and the id of the sitemap item of the link. Strings are
+ * UTF-8 with a variable length prefix.
+ * Breadcrumbs are read into {@link BreadcrumbNode}s, so equal prefixes are shared again after reading.
+ */
+public final class BreadcrumbCodec {
+
+	private static final byte NOT_FOUND = 1;
+	private static final byte CONTAINER_RESOURCE = 2;
+
+	private BreadcrumbCodec() {
+	}
+
+	/**
+	 * Writes a breadcrumb.
+	 *
+	 * @param out        output
+	 * @param breadcrumb breadcrumb
+	 * @throws IOException if writing fails
+	 */
+	public static void writeBreadcrumb(final DataOutput out, final Breadcrumb breadcrumb) throws IOException {
+		writeString(out, breadcrumb.getSeparator());
+		writeString(out, breadcrumb.getLinkNotFoundMode());
+		writeNode(out, BreadcrumbNode.of(breadcrumb));
+	}
+
+	/**
+	 * Reads a breadcrumb.
+	 *
+	 * @param in    input, positioned at the breadcrumb
+	 * @param mount mount to create the links for
+	 * @return immutable breadcrumb
+	 */
+	public static Breadcrumb readBreadcrumb(final ByteBuffer in, final Mount mount) {
+		final String separator = readString(in);
+		final String linkNotFoundMode = readString(in);
+		return BreadcrumbNode.toBreadcrumb(readNode(in), mount, separator, linkNotFoundMode);
+	}
+
+	/**
+	 * Writes the items up to and including a node.
+	 *
+	 * @param out  output
+	 * @param node last node, may be null
+	 * @throws IOException if writing fails
+	 */
+	public static void writeNode(final DataOutput out, final BreadcrumbNode node) throws IOException {
+		if (node == null) {
+			writeVarInt(out, 0);
+			return;
+		}
+		writeVarInt(out, node.getDepth());
+		final BreadcrumbNode[] nodes = new BreadcrumbNode[node.getDepth()];
+		for (BreadcrumbNode current = node; current != null; current = current.getParent()) {
+			nodes[current.getDepth() - 1] = current;
+		}
+		for (BreadcrumbNode current : nodes) {
+			out.writeByte((current.isNotFound() ? NOT_FOUND : 0)
+					| (current.isContainerResource() ? CONTAINER_RESOURCE : 0));
+			writeString(out, current.getTitle());
+			writeString(out, current.getPath());
+			writeString(out, current.getType());
+			writeString(out, current.getSiteMapItemId());
+		}
+	}
+
+	/**
+	 * Reads the items written by {@link #writeNode(DataOutput, BreadcrumbNode)}.
+	 *
+	 * @param in input, positioned at the items
+	 * @return interned last node, or null if there are no items
+	 */
+	public static BreadcrumbNode readNode(final ByteBuffer in) {
+		final int depth = readVarInt(in);
+		BreadcrumbNode node = null;
+		for (int i = 0; i < depth; i++) {
+			final byte flags = in.get();
+			node = BreadcrumbNode.of(node, readString(in), readString(in), readString(in), readString(in),
+					(flags & NOT_FOUND) != 0, (flags & CONTAINER_RESOURCE) != 0);
+		}
+		return node;
+	}
+
+	static void writeString(final DataOutput out, final String value) throws IOException {
+		if (value == null) {
+			writeVarInt(out, 0);
+			return;
+		}
+		final byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+		writeVarInt(out, bytes.length + 1);
+		out.write(bytes);
+	}
+
+	static String readString(final ByteBuffer in) {
+		final int length = readVarInt(in) - 1;
+		if (length < 0) {
+			return null;
+		}
+		final byte[] bytes = new byte[length];
+		in.get(bytes);
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+
+	static void writeVarInt(final DataOutput out, final int value) throws IOException {
+		int remaining = value;
+		while ((remaining & ~0x7F) != 0) {
+			out.writeByte((remaining & 0x7F) | 0x80);
+			remaining >>>= 7;
+		}
+		out.writeByte(remaining);
+	}
+
+	static int readVarInt(final ByteBuffer in) {
+		int value = 0;
+		for (int shift = 0; shift < 32; shift += 7) {
+			final byte b = in.get();
+			value |= (b & 0x7F) << shift;
+			if ((b & 0x80) == 0) {
+				return value;
+			}
+		}
+		throw new IllegalArgumentException("Malformed variable length integer");
+	}
+}
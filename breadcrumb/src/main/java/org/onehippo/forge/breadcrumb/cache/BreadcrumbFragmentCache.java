@@ -0,0 +1,132 @@
+/*
+ * Copyright 2026 Bloomreach
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onehippo.forge.breadcrumb.cache;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+import org.hippoecm.hst.core.request.HstRequestContext;
+import org.hippoecm.hst.site.HstServices;
+import org.onehippo.forge.breadcrumb.metrics.BreadcrumbMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Bounded cache of rendered breadcrumb HTML fragments, shared by all breadcrumb components of a site webapp.
+ * <p>
+ * Fragments are keyed like cached breadcrumbs and evicted by size, the maximum being configured by the HST container
+ * property {@value #MAX_SIZE_PROPERTY}. Since rendered URLs differ per mount, every entry holds the fragments of
+ * the mounts of its {@link LinkScope} by mount identifier. All entries are dropped when the HST model is reloaded,
+ * and the entries of changed content are evicted by {@link #invalidateSubtree(String)}.
+ */
+public final class BreadcrumbFragmentCache {
+
+	private static final Logger log = LoggerFactory.getLogger(BreadcrumbFragmentCache.class);
+
+	public static final String MAX_SIZE_PROPERTY = "breadcrumb.fragmentCache.maxSize";
+	public static final int DEFAULT_MAX_SIZE = 10000;
+
+	private static final BreadcrumbFragmentCache INSTANCE = new BreadcrumbFragmentCache(getConfiguredMaxSize());
+
+	private final ModelScoped<PathIndexedCache<BreadcrumbCacheKey, Fragments>> caches;
+
+	public BreadcrumbFragmentCache(final long maxSize) {
+		this.caches = new ModelScoped<>(() -> new PathIndexedCache<>(maxSize, fragments -> fragments.contentPath));
+	}
+
+	/**
+	 * Returns the cache shared within the site webapp.
+	 *
+	 * @return shared fragment cache
+	 */
+	public static BreadcrumbFragmentCache getInstance() {
+		return INSTANCE;
+	}
+
+	/**
+	 * Returns the cached fragment for a key, or renders, caches and returns it.
+	 *
+	 * @param requestContext HST request context, determining the model generation
+	 * @param key            cache key
+	 * @param contentPath    supplier of the absolute path of the content the breadcrumb is generated for, returning
+	 *                       null if none; only called when the key is not cached yet
+	 * @param renderer       renderer of the fragment on a cache miss
+	 * @return HTML fragment
+	 */
+	public String get(final HstRequestContext requestContext, final BreadcrumbCacheKey key,
+			final Supplier<String> contentPath, final Supplier<String> renderer) {
+		final PathIndexedCache<BreadcrumbCacheKey, Fragments> cache = caches.get(requestContext);
+		final String mountIdentifier = requestContext.getResolvedMount().getMount().getIdentifier();
+
+		Fragments fragments = cache.getIfPresent(key);
+		if (fragments == null) {
+			fragments = cache.putIfAbsent(key, new Fragments(contentPath.get()));
+		}
+
+		String fragment = fragments.byMount.get(mountIdentifier);
+		if (fragment == null) {
+			BreadcrumbMetrics.getInstance().recordMiss(BreadcrumbMetrics.CacheType.FRAGMENT_CACHE);
+			fragment = renderer.get();
+			fragments.byMount.put(mountIdentifier, fragment);
+			log.debug("Cached breadcrumb fragment for {}", key);
+		} else {
+			BreadcrumbMetrics.getInstance().recordHit(BreadcrumbMetrics.CacheType.FRAGMENT_CACHE);
+		}
+		return fragment;
+	}
+
+	/**
+	 * Removes the fragments of breadcrumbs generated for content at or below a path.
+	 *
+	 * @param path absolute repository path
+	 * @return number of removed entries
+	 */
+	public int invalidateSubtree(final String path) {
+		int count = 0;
+		for (PathIndexedCache<BreadcrumbCacheKey, Fragments> cache : caches.values()) {
+			count += cache.invalidateSubtree(path);
+		}
+		return count;
+	}
+
+	/**
+	 * Removes all cached fragments.
+	 */
+	public void invalidateAll() {
+		for (PathIndexedCache<BreadcrumbCacheKey, Fragments> cache : caches.values()) {
+			cache.invalidateAll();
+		}
+	}
+
+	private static int getConfiguredMaxSize() {
+		if (HstServices.isAvailable()) {
+			return HstServices.getComponentManager().getContainerConfiguration()
+					.getInt(MAX_SIZE_PROPERTY, DEFAULT_MAX_SIZE);
+		}
+		return DEFAULT_MAX_SIZE;
+	}
+
+	private static final class Fragments {
+
+		private final String contentPath;
+		private final Map<String, String> byMount = new ConcurrentHashMap<>(4);
+
+		private Fragments(final String contentPath) {
+			this.contentPath = contentPath;
+		}
+	}
+}
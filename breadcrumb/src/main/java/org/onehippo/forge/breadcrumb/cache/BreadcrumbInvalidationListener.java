@@ -0,0 +1,155 @@
+/*
+ * Copyright 2026 Bloomreach
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onehippo.forge.breadcrumb.cache;
+
+import java.util.SortedSet;
+import java.util.TreeSet;
+
+import javax.jcr.RepositoryException;
+import javax.jcr.observation.Event;
+import javax.jcr.observation.EventIterator;
+import javax.jcr.observation.EventListener;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * JCR observation listener evicting the cached breadcrumbs, fragments, links, ancestor index entries and not found
+ * matches of changed content.
+ * <p>
+ * A change to a node, e.g. a rename, move, removal, publication or display name change, evicts the entries of that
+ * node and of all nodes below it, since their breadcrumbs show the changed node or are generated for it. Other
+ * entries are kept. Changes to a document variant or below it count as changes to its handle, by which the
+ * document is cached. Changes to the HST configuration, including menus, reload the HST model, which drops all model
+ * bound caches already.
+ * <p>
+ * The listener is to be registered on every site webapp for the content subtree, without the no local flag, so
+ * every cluster node also evicts for changes saved on other cluster nodes.
+ */
+public class BreadcrumbInvalidationListener implements EventListener {
+
+	private static final Logger log = LoggerFactory.getLogger(BreadcrumbInvalidationListener.class);
+
+	private static final String SOURCE_PATH_INFO = "srcAbsPath";
+	private static final String TRANSLATION_NODE_NAME = "hippo:translation";
+
+	@Override
+	public void onEvent(final EventIterator events) {
+		final SortedSet<String> paths = new TreeSet<>();
+		while (events.hasNext()) {
+			final Event event = events.nextEvent();
+			try {
+				addChangedPaths(event, paths);
+			} catch (RepositoryException e) {
+				log.warn("Cannot read path of event {}: {}", event, e.toString());
+			}
+		}
+
+		String evictedPath = null;
+		for (String path : paths) {
+			// subtrees below an evicted path are evicted already
+			if (evictedPath == null || !isAtOrBelow(path, evictedPath)) {
+				invalidateSubtree(path);
+				evictedPath = path;
+			}
+		}
+	}
+
+	/**
+	 * Evicts the entries of a node and of all nodes below it from the shared caches.
+	 *
+	 * @param path absolute path of the changed node
+	 */
+	protected void invalidateSubtree(final String path) {
+		// breadcrumbs last, as a stale-while-revalidate mode refills the index and the memo in the background
+		final int count = AncestorIndex.getInstance().invalidateSubtree(path)
+				+ LinkMemo.getInstance().invalidateSubtree(path)
+				+ NotFoundIndex.getInstance().invalidateSubtree(path)
+				+ BreadcrumbFragmentCache.getInstance().invalidateSubtree(path)
+				+ BreadcrumbCache.getInstance().invalidateSubtree(path)
+				+ BreadcrumbSnapshot.getInstance().invalidateSubtree(path);
+		if (count > 0) {
+			log.debug("Evicted {} breadcrumb cache entries for changes at {}", count, path);
+		}
+	}
+
+	private static void addChangedPaths(final Event event, final SortedSet<String> paths)
+			throws RepositoryException {
+		final String path = event.getPath();
+		switch (event.getType()) {
+			case Event.PROPERTY_ADDED:
+			case Event.PROPERTY_CHANGED:
+			case Event.PROPERTY_REMOVED:
+				addNodePath(getParentPath(path), paths);
+				break;
+			case Event.NODE_MOVED:
+				addNodePath(path, paths);
+				final Object sourcePath = event.getInfo().get(SOURCE_PATH_INFO);
+				if (sourcePath instanceof String) {
+					addNodePath((String) sourcePath, paths);
+				}
+				break;
+			default:
+				addNodePath(path, paths);
+		}
+	}
+
+	private static void addNodePath(final String path, final SortedSet<String> paths) {
+		if (path == null) {
+			return;
+		}
+		// the translated display name of a folder or document is kept in a child node
+		final String name = path.substring(path.lastIndexOf('/') + 1);
+		paths.add(getHandlePath(name.startsWith(TRANSLATION_NODE_NAME) ? getParentPath(path) : path));
+	}
+
+	/**
+	 * Returns the path of the handle if a path is at or below a document variant, else the path itself. Variants are
+	 * recognized by having the name of their parent, since the node types of removed nodes cannot be read anymore; a
+	 * folder named like its parent folder is taken for a variant as well, which evicts more than needed.
+	 */
+	private static String getHandlePath(final String path) {
+		String parentName = null;
+		int start = 1;
+		while (start < path.length()) {
+			final int slash = path.indexOf('/', start);
+			final int end = (slash < 0) ? path.length() : slash;
+			final String name = getNameWithoutIndex(path.substring(start, end));
+			if (name.equals(parentName)) {
+				return path.substring(0, start - 1);
+			}
+			parentName = name;
+			start = end + 1;
+		}
+		return path;
+	}
+
+	private static String getNameWithoutIndex(final String segment) {
+		// the variants of a handle are same name siblings, e.g. document[2]
+		final int index = segment.indexOf('[');
+		return (index < 0) ? segment : segment.substring(0, index);
+	}
+
+	private static String getParentPath(final String path) {
+		final int index = path.lastIndexOf('/');
+		return (index <= 0) ? "/" : path.substring(0, index);
+	}
+
+	private static boolean isAtOrBelow(final String path, final String ancestorPath) {
+		return path.equals(ancestorPath) || "/".equals(ancestorPath)
+				|| (path.startsWith(ancestorPath) && path.charAt(ancestorPath.length()) == '/');
+	}
+}
@@ -0,0 +1,217 @@
+/*
+ * Copyright 2026 Bloomreach
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onehippo.forge.breadcrumb.cache;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import javax.jcr.Credentials;
+import javax.jcr.Node;
+import javax.jcr.Repository;
+import javax.jcr.RepositoryException;
+import javax.jcr.Session;
+
+import org.hippoecm.hst.configuration.hosting.Mount;
+import org.hippoecm.hst.core.linking.HstLink;
+import org.hippoecm.hst.core.linking.HstLinkCreator;
+import org.hippoecm.hst.site.HstServices;
+import org.hippoecm.repository.api.HippoNodeType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Background revalidation for the stale-while-revalidate mode of the {@link BreadcrumbCache}.
+ * <p>
+ * If the HST container property {@value #MAX_STALENESS_PROPERTY} is set to a number of milliseconds larger than 0,
+ * a content change does not evict cached breadcrumbs but marks them stale. Stale breadcrumbs are served on while this
+ * revalidator reads the changed content and its ancestors into the {@link AncestorIndex} and {@link LinkMemo}, on a
+ * background thread with its own JCR session. When that is done, the next request generates the breadcrumb again,
+ * from the warm caches, while concurrent requests are still served the stale one. Breadcrumbs that are stale for
+ * longer than the maximum staleness are not served anymore.
+ * <p>
+ * Generating the breadcrumb itself needs the HST request, so only the repository reads and link creation are done
+ * in the background.
+ */
+public final class BreadcrumbRevalidator {
+
+	private static final Logger log = LoggerFactory.getLogger(BreadcrumbRevalidator.class);
+
+	public static final String MAX_STALENESS_PROPERTY = "breadcrumb.cache.maxStaleness";
+	public static final long DEFAULT_MAX_STALENESS = 0L;
+
+	private static final int MAX_QUEUED = 1000;
+	private static final long KEEP_ALIVE_SECONDS = 60L;
+
+	private static final BreadcrumbRevalidator INSTANCE = new BreadcrumbRevalidator(getConfiguredMaxStaleness());
+
+	private final long maxStalenessNanos;
+	private final ConcurrentMap<String, CompletableFuture<Void>> pending = new ConcurrentHashMap<>();
+	private final ThreadPoolExecutor executor;
+
+	/**
+	 * Constructor
+	 *
+	 * @param maxStaleness maximum staleness in milliseconds, 0 or less to evict changed breadcrumbs at once
+	 */
+	public BreadcrumbRevalidator(final long maxStaleness) {
+		this.maxStalenessNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(maxStaleness, 0L));
+		this.executor = new ThreadPoolExecutor(1, 1, KEEP_ALIVE_SECONDS, TimeUnit.SECONDS,
+				new LinkedBlockingQueue<>(MAX_QUEUED), WorkerThread::new);
+		this.executor.allowCoreThreadTimeOut(true);
+	}
+
+	/**
+	 * Returns the revalidator shared within the site webapp.
+	 *
+	 * @return shared revalidator
+	 */
+	public static BreadcrumbRevalidator getInstance() {
+		return INSTANCE;
+	}
+
+	/**
+	 * @return true if changed breadcrumbs are served stale while being revalidated
+	 */
+	public boolean isEnabled() {
+		return maxStalenessNanos > 0L;
+	}
+
+	/**
+	 * Whether a breadcrumb that became stale at a moment may still be served.
+	 *
+	 * @param staleSinceNanos {@link System#nanoTime()} at which the breadcrumb became stale
+	 * @return true if within the maximum staleness
+	 */
+	public boolean isServable(final long staleSinceNanos) {
+		return System.nanoTime() - staleSinceNanos <= maxStalenessNanos;
+	}
+
+	/**
+	 * Reads the content at a path and its ancestors into the shared caches, in the background. Requests for a path
+	 * and mount that is being revalidated already share its result.
+	 *
+	 * @param mount mount to create links for
+	 * @param path  absolute content path, may be null
+	 * @return future that is done when the caches are filled; done right away if there is nothing to do or the
+	 *         queue is full
+	 */
+	public CompletableFuture<Void> revalidate(final Mount mount, final String path) {
+		if (path == null || mount == null) {
+			return CompletableFuture.completedFuture(null);
+		}
+
+		final String key = mount.getIdentifier() + ':' + path;
+		final CompletableFuture<Void> future = new CompletableFuture<>();
+		final CompletableFuture<Void> existing = pending.putIfAbsent(key, future);
+		if (existing != null) {
+			return existing;
+		}
+
+		try {
+			executor.execute(() -> {
+				try {
+					revalidate(((WorkerThread) Thread.currentThread()).getSession(), mount, path);
+				} catch (RepositoryException | RuntimeException e) {
+					log.warn("Cannot revalidate breadcrumbs of {}: {}", path, e.toString());
+				} finally {
+					pending.remove(key, future);
+					future.complete(null);
+				}
+			});
+		} catch (RejectedExecutionException e) {
+			log.debug("Revalidation queue full, not revalidating {}", path);
+			pending.remove(key, future);
+			future.complete(null);
+		}
+		return future;
+	}
+
+	private static void revalidate(final Session session, final Mount mount, final String path)
+			throws RepositoryException {
+		session.refresh(false);
+		final String stopPath = mount.getContentPath();
+		AncestorPrefetcher.prefetch(session, path, stopPath, AncestorIndex.getInstance());
+
+		final HstLinkCreator linkCreator = HstServices.getComponentManager().getComponent(
+				HstLinkCreator.class.getName());
+		final Object model = mount.getVirtualHost().getVirtualHosts();
+		String current = path;
+		while (current.startsWith(stopPath)) {
+			if (session.nodeExists(current)) {
+				Node node = session.getNode(current);
+				if (node.isNodeType(HippoNodeType.NT_HANDLE) && node.hasNode(node.getName())) {
+					node = node.getNode(node.getName());
+				}
+				final HstLink link = linkCreator.create(node, mount);
+				if (link != null) {
+					LinkMemo.getInstance().put(model, mount, node.getIdentifier(), node.getPath(), link);
+				}
+			}
+			if (current.length() == stopPath.length()) {
+				break;
+			}
+			current = current.substring(0, current.lastIndexOf('/'));
+		}
+	}
+
+	private static long getConfiguredMaxStaleness() {
+		if (HstServices.isAvailable()) {
+			return HstServices.getComponentManager().getContainerConfiguration()
+					.getLong(MAX_STALENESS_PROPERTY, DEFAULT_MAX_STALENESS);
+		}
+		return DEFAULT_MAX_STALENESS;
+	}
+
+	/**
+	 * Daemon thread reading with its own session, logged out when the thread ends after being idle.
+	 */
+	private static final class WorkerThread extends Thread {
+
+		private Session session;
+
+		private WorkerThread(final Runnable runnable) {
+			super(runnable, "breadcrumb-revalidator");
+			setDaemon(true);
+		}
+
+		private Session getSession() throws RepositoryException {
+			if (session == null || !session.isLive()) {
+				final Repository repository = HstServices.getComponentManager().getComponent(
+						Repository.class.getName());
+				final Credentials credentials = HstServices.getComponentManager().getComponent(
+						Credentials.class.getName() + ".default");
+				session = repository.login(credentials);
+			}
+			return session;
+		}
+
+		@Override
+		public void run() {
+			try {
+				super.run();
+			} finally {
+				if (session != null) {
+					session.logout();
+				}
+			}
+		}
+	}
+}
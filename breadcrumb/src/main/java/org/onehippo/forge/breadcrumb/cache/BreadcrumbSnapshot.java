@@ -0,0 +1,412 @@
+/*
+ * Copyright 2026 Bloomreach
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onehippo.forge.breadcrumb.cache;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.ref.WeakReference;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+import javax.jcr.RepositoryException;
+
+import org.hippoecm.hst.configuration.hosting.Mount;
+import org.hippoecm.hst.configuration.hosting.VirtualHosts;
+import org.hippoecm.hst.core.request.HstRequestContext;
+import org.onehippo.forge.breadcrumb.om.Breadcrumb;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Breadcrumbs of an earlier run of the site webapp, restored from a snapshot file so that a fresh instance serves
+ * warm breadcrumbs before it has generated them itself.
+ * <p>
+ * A snapshot holds the breadcrumbs of the {@link BreadcrumbCache} that are shared by their {@link LinkScope}, with
+ * their keys and content paths, in the form of {@link BreadcrumbCodec}. It is marked with a fingerprint of the HST
+ * model and with its content revision, the time it was written. A snapshot of another model, or older than a given
+ * time, is rejected as a whole; of an accepted one, the entries of content changed since its revision are dropped.
+ * <p>
+ * As renaming, moving or deleting a folder changes no document, the snapshot also records the state of the nodes the
+ * entries depend on: their content paths and the folders above them. Of an accepted snapshot, the entries below a
+ * node that is gone or has another state are dropped as well.
+ * <p>
+ * The file is memory-mapped on loading and only the keys are read; a breadcrumb is decoded when a request first asks
+ * for it, and then moves into the breadcrumb cache. Entries of changed content are removed by
+ * {@link #invalidateSubtree(String)}, and all entries are dropped when the HST model reloads after loading.
+ */
+public final class BreadcrumbSnapshot {
+
+	private static final Logger log = LoggerFactory.getLogger(BreadcrumbSnapshot.class);
+
+	private static final int MAGIC = 0x42435331;
+	private static final int FORMAT_VERSION = 3;
+
+	private static final BreadcrumbSnapshot INSTANCE = new BreadcrumbSnapshot();
+
+	private volatile Restorable restorable;
+
+	/**
+	 * Returns the snapshot shared within the site webapp.
+	 *
+	 * @return shared snapshot
+	 */
+	public static BreadcrumbSnapshot getInstance() {
+		return INSTANCE;
+	}
+
+	/**
+	 * Writes the shared breadcrumbs of the breadcrumb cache, plus the entries of the loaded snapshot that were not
+	 * restored yet, to a file, followed by the current state of the nodes they depend on. The file is replaced
+	 * atomically.
+	 *
+	 * @param file        snapshot file
+	 * @param modelMarker fingerprint of the HST model the breadcrumbs were generated with
+	 * @param nodeStates  source of the current state of the nodes
+	 * @return number of written breadcrumbs
+	 * @throws IOException         if writing fails
+	 * @throws RepositoryException if the state of the nodes cannot be read
+	 */
+	public int write(final Path file, final String modelMarker, final NodeStates nodeStates)
+			throws IOException, RepositoryException {
+		final long revision = System.currentTimeMillis();
+		final Path directory = file.toAbsolutePath().getParent();
+		Files.createDirectories(directory);
+		final Path temp = Files.createTempFile(directory, file.getFileName().toString(), ".tmp");
+		final Set<BreadcrumbCacheKey> written = new HashSet<>();
+		final Set<String> contentPaths = new HashSet<>();
+		try {
+			try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+				out.writeInt(MAGIC);
+				out.writeInt(FORMAT_VERSION);
+				out.writeLong(revision);
+				BreadcrumbCodec.writeString(out, modelMarker);
+				writeCached(out, written, contentPaths);
+				writeRestorable(out, written, contentPaths);
+				out.writeByte(0);
+				writeNodeStates(out, contentPaths, nodeStates);
+			}
+			Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		} finally {
+			Files.deleteIfExists(temp);
+		}
+		log.info("Wrote {} breadcrumbs to snapshot {}", written.size(), file);
+		return written.size();
+	}
+
+	/**
+	 * Loads a snapshot file, replacing a loaded snapshot. The file is rejected if it was written for another HST model
+	 * or before a given time. Of an accepted file, the entries of changed content and of nodes of which the state
+	 * changed are dropped.
+	 *
+	 * @param file        snapshot file
+	 * @param model       model generation marker, normally the {@link VirtualHosts} instance, to which the
+	 *                    restored breadcrumbs belong
+	 * @param modelMarker fingerprint of that HST model
+	 * @param notBefore   minimum content revision, in milliseconds since the epoch
+	 * @param changes     source of the content changed since the revision of the snapshot
+	 * @param nodeStates  source of the current state of the nodes the entries depend on
+	 * @return content revision of the loaded snapshot, or -1 if it was rejected
+	 * @throws IOException         if the file cannot be read
+	 * @throws RepositoryException if the changed content cannot be determined
+	 */
+	public long load(final Path file, final Object model, final String modelMarker, final long notBefore,
+			final ChangedPaths changes, final NodeStates nodeStates) throws IOException, RepositoryException {
+		final ByteBuffer buffer;
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+			buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0L, channel.size());
+		}
+
+		final PathIndexedCache<BreadcrumbCacheKey, Entry> entries =
+				new PathIndexedCache<>(Integer.MAX_VALUE, entry -> entry.contentPath);
+		final Map<String, String> writtenStates = new TreeMap<>();
+		final long revision;
+		try {
+			if (buffer.getInt() != MAGIC || buffer.getInt() != FORMAT_VERSION) {
+				log.info("Ignoring breadcrumb snapshot {} of another format", file);
+				return -1L;
+			}
+			revision = buffer.getLong();
+			if (revision < notBefore || !Objects.equals(BreadcrumbCodec.readString(buffer), modelMarker)) {
+				log.info("Ignoring breadcrumb snapshot {} of an outdated HST model or content revision", file);
+				return -1L;
+			}
+			while (buffer.get() != 0) {
+				final BreadcrumbCacheKey key = BreadcrumbCacheKey.read(buffer);
+				final String contentPath = BreadcrumbCodec.readString(buffer);
+				final int length = BreadcrumbCodec.readVarInt(buffer);
+				entries.put(key, new Entry(contentPath, buffer.position(), length));
+				buffer.position(buffer.position() + length);
+			}
+			final int nodeCount = BreadcrumbCodec.readVarInt(buffer);
+			for (int i = 0; i < nodeCount; i++) {
+				writtenStates.put(BreadcrumbCodec.readString(buffer), BreadcrumbCodec.readString(buffer));
+			}
+		} catch (BufferUnderflowException | IllegalArgumentException e) {
+			log.warn("Ignoring corrupt breadcrumb snapshot {}: {}", file, e.toString());
+			return -1L;
+		}
+
+		int dropped = 0;
+		for (String path : changes.since(revision)) {
+			dropped += entries.invalidateSubtree(path);
+		}
+		for (Map.Entry<String, String> written : writtenStates.entrySet()) {
+			if (!Objects.equals(written.getValue(), nodeStates.of(written.getKey()))) {
+				dropped += entries.invalidateSubtree(written.getKey());
+			}
+		}
+		restorable = new Restorable(buffer, entries, model);
+		log.info("Loaded {} breadcrumbs from snapshot {}, dropped {} of changed content", entries.size(), file,
+				dropped);
+		return revision;
+	}
+
+	/**
+	 * Takes the breadcrumb for a key out of the loaded snapshot.
+	 *
+	 * @param requestContext HST request context, determining the model generation
+	 * @param key            cache key
+	 * @param mount          mount to create the links for
+	 * @return restored breadcrumb with its content path, or null if the snapshot has none for the key
+	 */
+	Restored restore(final HstRequestContext requestContext, final BreadcrumbCacheKey key, final Mount mount) {
+		final Restorable current = restorable;
+		if (current == null) {
+			return null;
+		}
+		if (!current.isOfModel(ModelScoped.getModel(requestContext))) {
+			log.info("Dropping breadcrumb snapshot after an HST model reload");
+			clear(current);
+			return null;
+		}
+
+		final Entry entry = current.entries.getIfPresent(key);
+		if (entry == null) {
+			return null;
+		}
+		current.entries.invalidate(key);
+		return new Restored(entry.contentPath, BreadcrumbCodec.readBreadcrumb(current.slice(entry), mount));
+	}
+
+	/**
+	 * Removes the breadcrumbs generated for content at or below a path.
+	 *
+	 * @param path absolute repository path
+	 * @return number of removed breadcrumbs
+	 */
+	public int invalidateSubtree(final String path) {
+		final Restorable current = restorable;
+		return (current == null) ? 0 : current.entries.invalidateSubtree(path);
+	}
+
+	/**
+	 * Drops the loaded snapshot.
+	 */
+	public void clear() {
+		restorable = null;
+	}
+
+	/**
+	 * Returns the number of breadcrumbs that were loaded and not restored yet.
+	 *
+	 * @return approximate number of entries
+	 */
+	public long size() {
+		final Restorable current = restorable;
+		return (current == null) ? 0 : current.entries.size();
+	}
+
+	private synchronized void clear(final Restorable expected) {
+		if (restorable == expected) {
+			restorable = null;
+		}
+	}
+
+	private static void writeCached(final DataOutputStream out, final Set<BreadcrumbCacheKey> written,
+			final Set<String> contentPaths) throws IOException {
+		final ByteArrayOutputStream payload = new ByteArrayOutputStream(256);
+		final DataOutputStream payloadOut = new DataOutputStream(payload);
+		try {
+			BreadcrumbCache.getInstance().forEachShared((key, contentPath, breadcrumb) -> {
+				if (!written.add(key)) {
+					return;
+				}
+				addPath(contentPaths, contentPath);
+				try {
+					payload.reset();
+					BreadcrumbCodec.writeBreadcrumb(payloadOut, breadcrumb);
+					writeEntry(out, key, contentPath, payload.toByteArray());
+				} catch (IOException e) {
+					throw new UncheckedIOException(e);
+				}
+			});
+		} catch (UncheckedIOException e) {
+			throw e.getCause();
+		}
+	}
+
+	private void writeRestorable(final DataOutputStream out, final Set<BreadcrumbCacheKey> written,
+			final Set<String> contentPaths) throws IOException {
+		final Restorable current = restorable;
+		if (current == null) {
+			return;
+		}
+		for (Map.Entry<BreadcrumbCacheKey, Entry> mapEntry : current.entries.asMap().entrySet()) {
+			final Entry entry = mapEntry.getValue();
+			if (written.add(mapEntry.getKey())) {
+				addPath(contentPaths, entry.contentPath);
+				final byte[] bytes = new byte[entry.length];
+				current.slice(entry).get(bytes);
+				writeEntry(out, mapEntry.getKey(), entry.contentPath, bytes);
+			}
+		}
+	}
+
+	/**
+	 * Writes the state of the content paths and the folders above them, each node once.
+	 */
+	private static void writeNodeStates(final DataOutputStream out, final Set<String> contentPaths,
+			final NodeStates nodeStates) throws IOException, RepositoryException {
+		final Set<String> paths = new TreeSet<>();
+		for (String contentPath : contentPaths) {
+			// the content path and the folders above it, up to one added before
+			String path = contentPath;
+			while (path.lastIndexOf('/') > 0 && paths.add(path)) {
+				path = path.substring(0, path.lastIndexOf('/'));
+			}
+		}
+		BreadcrumbCodec.writeVarInt(out, paths.size());
+		for (String path : paths) {
+			BreadcrumbCodec.writeString(out, path);
+			BreadcrumbCodec.writeString(out, nodeStates.of(path));
+		}
+	}
+
+	private static void addPath(final Set<String> contentPaths, final String contentPath) {
+		if (contentPath != null) {
+			contentPaths.add(contentPath);
+		}
+	}
+
+	private static void writeEntry(final DataOutputStream out, final BreadcrumbCacheKey key, final String contentPath,
+			final byte[] payload) throws IOException {
+		out.writeByte(1);
+		key.write(out);
+		BreadcrumbCodec.writeString(out, contentPath);
+		BreadcrumbCodec.writeVarInt(out, payload.length);
+		out.write(payload);
+	}
+
+	/**
+	 * Source of the content changed since a snapshot was written.
+	 */
+	@FunctionalInterface
+	public interface ChangedPaths {
+
+		/**
+		 * Returns the paths of the content changed since a content revision.
+		 *
+		 * @param revision content revision, in milliseconds since the epoch
+		 * @return absolute repository paths
+		 * @throws RepositoryException if the changes cannot be read
+		 */
+		Collection<String> since(long revision) throws RepositoryException;
+	}
+
+	/**
+	 * Source of the state of repository nodes, as far as breadcrumbs depend on it.
+	 */
+	@FunctionalInterface
+	public interface NodeStates {
+
+		/**
+		 * Returns the state of the node at a path, e.g. its identifier and display name.
+		 *
+		 * @param path absolute repository path
+		 * @return state that differs when the node was replaced or renamed, null if there is no node at the path
+		 * @throws RepositoryException if the node cannot be read
+		 */
+		String of(String path) throws RepositoryException;
+	}
+
+	/**
+	 * Breadcrumb taken out of the snapshot or the off-heap store, with its content path.
+	 */
+	static final class Restored {
+
+		final String contentPath;
+		final Breadcrumb breadcrumb;
+
+		Restored(final String contentPath, final Breadcrumb breadcrumb) {
+			this.contentPath = contentPath;
+			this.breadcrumb = breadcrumb;
+		}
+	}
+
+	private static final class Entry {
+
+		private final String contentPath;
+		private final int offset;
+		private final int length;
+
+		private Entry(final String contentPath, final int offset, final int length) {
+			this.contentPath = contentPath;
+			this.offset = offset;
+			this.length = length;
+		}
+	}
+
+	private static final class Restorable {
+
+		private final ByteBuffer buffer;
+		private final PathIndexedCache<BreadcrumbCacheKey, Entry> entries;
+		private final WeakReference<Object> model;
+
+		private Restorable(final ByteBuffer buffer, final PathIndexedCache<BreadcrumbCacheKey, Entry> entries,
+				final Object model) {
+			this.buffer = buffer;
+			this.entries = entries;
+			this.model = new WeakReference<>(model);
+		}
+
+		private boolean isOfModel(final Object requestModel) {
+			return model.get() == requestModel;
+		}
+
+		private ByteBuffer slice(final Entry entry) {
+			// a duplicate per read, since the position of the shared buffer must not change
+			final ByteBuffer slice = buffer.duplicate();
+			slice.position(entry.offset);
+			slice.limit(entry.offset + entry.length);
+			return slice;
+		}
+	}
+}
@@ -0,0 +1,57 @@
+/*
+ * Copyright 2026 Bloomreach
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onehippo.forge.breadcrumb.cache;
+
+import org.hippoecm.hst.configuration.hosting.Mount;
+import org.hippoecm.hst.core.request.ResolvedSiteMapItem;
+
+/**
+ * Content paths of resolved sitemap items, as the caches are keyed and evicted by.
+ */
+public final class ContentPaths {
+
+	private ContentPaths() {
+	}
+
+	/**
+	 * Returns the absolute content path of a resolved sitemap item, also if no content exists there yet.
+	 *
+	 * @param mount               mount the sitemap item was resolved in
+	 * @param resolvedSiteMapItem resolved sitemap item
+	 * @return absolute content path, or null if the sitemap item refers to no content
+	 */
+	public static String of(final Mount mount, final ResolvedSiteMapItem resolvedSiteMapItem) {
+		return of(mount.getContentPath(), resolvedSiteMapItem.getRelativeContentPath());
+	}
+
+	/**
+	 * Appends a relative content path to a base path: an empty relative path is the base path itself, and a leading
+	 * slash of the relative path does not double the separator.
+	 *
+	 * @param basePath     absolute base path, e.g. the content path of a mount
+	 * @param relativePath path relative to the base path, may be null
+	 * @return absolute content path, or null if the relative path is null
+	 */
+	public static String of(final String basePath, final String relativePath) {
+		if (relativePath == null) {
+			return null;
+		}
+		if (relativePath.isEmpty()) {
+			return basePath;
+		}
+		return relativePath.startsWith("/") ? basePath + relativePath : basePath + "/" + relativePath;
+	}
+}
@@ -0,0 +1,97 @@
+/*
+ * Copyright 2026 Bloomreach
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onehippo.forge.breadcrumb.cache;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.hippoecm.hst.configuration.hosting.Mount;
+import org.hippoecm.hst.core.linking.HstLink;
+import org.onehippo.forge.breadcrumb.components.BreadcrumbProvider;
+import org.onehippo.forge.breadcrumb.om.Breadcrumb;
+import org.onehippo.forge.breadcrumb.om.BreadcrumbItem;
+
+/**
+ * Immutable copy of the state of a breadcrumb, from which a new breadcrumb can be created for every user, since
+ * {@link BreadcrumbItem} and {@link HstLink} are mutable. Like a {@link DetachedLink}, it must not outlive the model
+ * generation of its links.
+ */
+public final class DetachedBreadcrumb {
+
+	private final DetachedLink[] links;
+	private final String[] titles;
+	private final String separator;
+	private final BreadcrumbProvider.LinkNotFoundMode linkNotFoundMode;
+
+	public DetachedBreadcrumb(final Breadcrumb breadcrumb) {
+		final List<BreadcrumbItem> items = breadcrumb.getItems();
+		final int size = (items == null) ? 0 : items.size();
+		this.links = new DetachedLink[size];
+		this.titles = new String[size];
+		for (int i = 0; i < size; i++) {
+			final BreadcrumbItem item = items.get(i);
+			final HstLink link = item.getLink();
+			links[i] = (link == null) ? null : new DetachedLink(link);
+			titles[i] = item.getTitle();
+		}
+		this.separator = breadcrumb.getSeparator();
+		this.linkNotFoundMode = BreadcrumbProvider.LinkNotFoundMode.safeValueOf(breadcrumb.getLinkNotFoundMode());
+	}
+
+	/**
+	 * Whether all links are rendered for mounts of a scope, or for no mount at all.
+	 *
+	 * @param scope link scope
+	 * @return false if a link leads out of the scope, e.g. a cross channel link
+	 */
+	public boolean isInScope(final LinkScope scope) {
+		for (DetachedLink link : links) {
+			if (link != null && link.getMount() != null && !scope.contains(link.getMount())) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Creates a new breadcrumb, with new items and links, owned by the caller.
+	 *
+	 * @return new breadcrumb
+	 */
+	public Breadcrumb toBreadcrumb() {
+		return toBreadcrumb(null);
+	}
+
+	/**
+	 * Creates a new breadcrumb, with new items and links, owned by the caller. The links are rendered for another
+	 * mount if they belong to the same {@link LinkScope}, see {@link DetachedLink#toLink(Mount)}.
+	 *
+	 * @param target mount to render the links for, null to keep the mounts of the links
+	 * @return new breadcrumb
+	 */
+	public Breadcrumb toBreadcrumb(final Mount target) {
+		final List<BreadcrumbItem> items = new ArrayList<>(links.length);
+		for (int i = 0; i < links.length; i++) {
+			final DetachedLink link = links[i];
+			HstLink copy = null;
+			if (link != null) {
+				copy = (target == null) ? link.toLink() : link.toLink(target);
+			}
+			items.add(new BreadcrumbItem(copy, titles[i]));
+		}
+		return new Breadcrumb(items, separator, linkNotFoundMode);
+	}
+}
@@ -0,0 +1,81 @@
+/*
+ * Copyright 2026 Bloomreach
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onehippo.forge.breadcrumb.cache;
+
+import org.hippoecm.hst.configuration.hosting.Mount;
+import org.hippoecm.hst.configuration.sitemap.HstSiteMapItem;
+import org.hippoecm.hst.core.linking.HstLink;
+import org.hippoecm.hst.core.linking.HstLinkImpl;
+
+/**
+ * Immutable copy of the state of a link, from which a new link instance can be created for every user, since
+ * {@link HstLink} is mutable. The mount and sitemap item it refers to belong to one model generation, so a detached
+ * link must not outlive that generation.
+ */
+public final class DetachedLink {
+
+	private final String path;
+	private final String subPath;
+	private final Mount mount;
+	private final HstSiteMapItem siteMapItem;
+	private final boolean containerResource;
+	private final boolean notFound;
+
+	public DetachedLink(final HstLink link) {
+		this.path = link.getPath();
+		this.subPath = link.getSubPath();
+		this.mount = link.getMount();
+		this.siteMapItem = link.getHstSiteMapItem();
+		this.containerResource = link.isContainerResource();
+		this.notFound = link.isNotFound();
+	}
+
+	/**
+	 * @return mount the link was created for, may be null
+	 */
+	public Mount getMount() {
+		return mount;
+	}
+
+	public boolean isNotFound() {
+		return notFound;
+	}
+
+	/**
+	 * Creates a new link instance with the state of the detached link.
+	 *
+	 * @return new link
+	 */
+	public HstLink toLink() {
+		return toLink(mount);
+	}
+
+	/**
+	 * Creates a new link instance with the state of the detached link, rendered for another mount if the mount of the
+	 * detached link belongs to the same {@link LinkScope}.
+	 *
+	 * @param target mount to render the link for
+	 * @return new link
+	 */
+	public HstLink toLink(final Mount target) {
+		final Mount linkMount = (mount != null && mount != target && LinkScope.of(target).contains(mount))
+				? target : mount;
+		final HstLink link = new HstLinkImpl(path, linkMount, siteMapItem, containerResource);
+		link.setSubPath(subPath);
+		link.setNotFound(notFound);
+		return link;
+	}
+}
@@ -0,0 +1,187 @@
+/*
+ * Copyright 2026 Bloomreach
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onehippo.forge.breadcrumb.cache;
+
+import java.util.function.Supplier;
+
+import org.hippoecm.hst.configuration.hosting.Mount;
+import org.hippoecm.hst.core.linking.HstLink;
+import org.hippoecm.hst.core.request.HstRequestContext;
+import org.hippoecm.hst.site.HstServices;
+import org.onehippo.forge.breadcrumb.metrics.BreadcrumbMetrics;
+
+/**
+ * Memo of links created for content nodes, shared by all breadcrumb providers of a site webapp.
+ * <p>
+ * Links are memoized per node identifier, {@link LinkScope} of the request mount and navigation stateful flag, and
+ * are dropped when the HST model is reloaded. A link memoized for one mount is rebased on the other mounts of its
+ * scope, so it is created once for all of them; only links to mounts outside the scope, such as cross channel links,
+ * are kept for the mount they were created for. Since {@link HstLink} is mutable, the memo stores a detached form of
+ * the link and hands out a new link instance on every lookup. Links of a renamed or moved subtree are evicted by
+ * {@link #invalidateSubtree(String)}. Its maximum size is configured by the HST container property
+ * {@value #MAX_SIZE_PROPERTY}.
+ */
+public final class LinkMemo {
+
+	public static final String MAX_SIZE_PROPERTY = "breadcrumb.linkMemo.maxSize";
+	public static final int DEFAULT_MAX_SIZE = 50000;
+
+	private static final LinkMemo INSTANCE = new LinkMemo(getConfiguredMaxSize());
+
+	private final ModelScoped<PathIndexedCache<Key, Entry>> links;
+
+	public LinkMemo(final long maxSize) {
+		this.links = new ModelScoped<>(() -> new PathIndexedCache<>(maxSize, entry -> entry.path));
+	}
+
+	/**
+	 * Returns the memo shared within the site webapp.
+	 *
+	 * @return shared link memo
+	 */
+	public static LinkMemo getInstance() {
+		return INSTANCE;
+	}
+
+	/**
+	 * Returns a memoized link for a node, or creates and memoizes it.
+	 *
+	 * @param requestContext     HST request context, determining mount and model generation
+	 * @param identifier         identifier of the node to link to
+	 * @param path               path of the node to link to
+	 * @param navigationStateful whether the link is navigation stateful
+	 * @param creator            creator of the link on a miss
+	 * @return a link instance owned by the caller, or null if the creator returned null
+	 */
+	public HstLink getLink(final HstRequestContext requestContext, final String identifier, final String path,
+			final boolean navigationStateful, final Supplier<HstLink> creator) {
+		final PathIndexedCache<Key, Entry> cache = links.get(requestContext);
+		final Mount mount = requestContext.getResolvedMount().getMount();
+		final Key key = new Key(identifier, LinkScope.of(mount), navigationStateful);
+
+		final Entry entry = cache.getIfPresent(key);
+		if (entry != null && entry.isUsableFor(mount)) {
+			BreadcrumbMetrics.getInstance().recordHit(BreadcrumbMetrics.CacheType.LINK_MEMO);
+			return entry.link.toLink(mount);
+		}
+		BreadcrumbMetrics.getInstance().recordMiss(BreadcrumbMetrics.CacheType.LINK_MEMO);
+
+		final HstLink link = creator.get();
+		if (link != null) {
+			cache.put(key, new Entry(new DetachedLink(link), path, mount, key.scope));
+		}
+		return link;
+	}
+
+	/**
+	 * Memoizes a link that was created outside of a request, e.g. by a warm-up.
+	 *
+	 * @param model      model generation marker, the {@link org.hippoecm.hst.configuration.hosting.VirtualHosts}
+	 *                   the link was created with
+	 * @param mount      mount the link was created for
+	 * @param identifier identifier of the node linked to
+	 * @param path       path of the node linked to
+	 * @param link       link that is not navigation stateful
+	 */
+	public void put(final Object model, final Mount mount, final String identifier, final String path,
+			final HstLink link) {
+		final LinkScope scope = LinkScope.of(mount);
+		links.get(model).put(new Key(identifier, scope, false),
+				new Entry(new DetachedLink(link), path, mount, scope));
+	}
+
+	/**
+	 * Removes the links to a node and to all nodes below it.
+	 *
+	 * @param path absolute path of the node
+	 * @return number of removed links
+	 */
+	public int invalidateSubtree(final String path) {
+		int count = 0;
+		for (PathIndexedCache<Key, Entry> cache : links.values()) {
+			count += cache.invalidateSubtree(path);
+		}
+		return count;
+	}
+
+	/**
+	 * Removes all memoized links.
+	 */
+	public void invalidateAll() {
+		for (PathIndexedCache<Key, Entry> cache : links.values()) {
+			cache.invalidateAll();
+		}
+	}
+
+	private static int getConfiguredMaxSize() {
+		if (HstServices.isAvailable()) {
+			return HstServices.getComponentManager().getContainerConfiguration()
+					.getInt(MAX_SIZE_PROPERTY, DEFAULT_MAX_SIZE);
+		}
+		return DEFAULT_MAX_SIZE;
+	}
+
+	private static final class Entry {
+
+		private final DetachedLink link;
+		private final String path;
+		// set if the link leads out of the scope, so it is only valid for the mount it was created for
+		private final String ownerMountIdentifier;
+
+		private Entry(final DetachedLink link, final String path, final Mount mount, final LinkScope scope) {
+			this.link = link;
+			this.path = path;
+			this.ownerMountIdentifier = (link.getMount() == null || scope.contains(link.getMount())) ? null
+					: mount.getIdentifier();
+		}
+
+		private boolean isUsableFor(final Mount mount) {
+			return ownerMountIdentifier == null || ownerMountIdentifier.equals(mount.getIdentifier());
+		}
+	}
+
+	private static final class Key {
+
+		private final String identifier;
+		private final LinkScope scope;
+		private final boolean navigationStateful;
+
+		private Key(final String identifier, final LinkScope scope, final boolean navigationStateful) {
+			this.identifier = identifier;
+			this.scope = scope;
+			this.navigationStateful = navigationStateful;
+		}
+
+		@Override
+		public boolean equals(final Object o) {
+			if (this == o) {
+				return true;
+			}
+			if (!(o instanceof Key)) {
+				return false;
+			}
+			final Key that = (Key) o;
+			return navigationStateful == that.navigationStateful && identifier.equals(that.identifier)
+					&& scope.equals(that.scope);
+		}
+
+		@Override
+		public int hashCode() {
+			return 31 * (31 * identifier.hashCode() + scope.hashCode())
+					+ Boolean.hashCode(navigationStateful);
+		}
+	}
+}
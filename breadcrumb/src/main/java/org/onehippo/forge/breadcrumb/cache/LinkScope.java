@@ -0,0 +1,144 @@
+/*
+ * Copyright 2026 Bloomreach
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onehippo.forge.breadcrumb.cache;
+
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Objects;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import org.hippoecm.hst.configuration.hosting.Mount;
+import org.hippoecm.hst.core.linking.HstLink;
+import org.hippoecm.hst.core.linking.HstLinkImpl;
+
+/**
+ * Group of mounts for which links to the same content differ only in the mount they are rendered for.
+ * <p>
+ * Mounts with the same content path, the same HST configuration and the same preview flag resolve content to the
+ * same sitemap path, e.g. the mounts of one channel on several hosts. Breadcrumbs and links created for one mount of
+ * a scope can therefore be shared with the other mounts of that scope and rebased on the mount of the request,
+ * instead of being created again for every mount.
+ * <p>
+ * Sharing is limited to such mounts. The mounts of locales or subsites differ in content path or HST configuration,
+ * and a preview mount differs from its live mount in the preview flag, so each of them is a scope of its own: they
+ * share no breadcrumbs or links, and each caches and creates its own. Sharing across them would need the sitemaps of
+ * their configurations to resolve the mount relative content paths to the same sitemap paths, which nothing
+ * guarantees.
+ */
+public final class LinkScope {
+
+	// mounts belong to one model generation, so their scopes are held weakly, keyed by identity
+	private static final Cache<Mount, LinkScope> SCOPES = CacheBuilder.newBuilder().weakKeys().build();
+
+	private final String contentPath;
+	private final String configurationPath;
+	private final boolean preview;
+	private final int hashCode;
+
+	private LinkScope(final Mount mount) {
+		this(mount.getContentPath(), (mount.getHstSite() == null) ? null : mount.getHstSite().getConfigurationPath(),
+				mount.isPreview());
+	}
+
+	private LinkScope(final String contentPath, final String configurationPath, final boolean preview) {
+		this.contentPath = contentPath;
+		this.configurationPath = configurationPath;
+		this.preview = preview;
+		this.hashCode = 31 * (31 * Objects.hashCode(contentPath) + Objects.hashCode(configurationPath))
+				+ Boolean.hashCode(preview);
+	}
+
+	/**
+	 * Returns the scope of a mount.
+	 *
+	 * @param mount mount
+	 * @return link scope of the mount
+	 */
+	public static LinkScope of(final Mount mount) {
+		LinkScope scope = SCOPES.getIfPresent(mount);
+		if (scope == null) {
+			scope = new LinkScope(mount);
+			SCOPES.put(mount, scope);
+		}
+		return scope;
+	}
+
+	/**
+	 * Whether a mount belongs to this scope.
+	 *
+	 * @param mount mount, may be null
+	 * @return true if links for the mount can be rebased on other mounts of this scope
+	 */
+	public boolean contains(final Mount mount) {
+		return mount != null && equals(of(mount));
+	}
+
+	/**
+	 * Creates a copy of a link that is rendered for another mount of the same scope. Links for mounts of other
+	 * scopes, e.g. cross channel links, are returned as is.
+	 *
+	 * @param link  link to rebase
+	 * @param mount mount to render the link for
+	 * @return rebased link, or the given link if it need not or cannot be rebased
+	 */
+	public static HstLink rebase(final HstLink link, final Mount mount) {
+		final Mount linkMount = link.getMount();
+		if (linkMount == null || linkMount == mount || !of(mount).contains(linkMount)) {
+			return link;
+		}
+		final HstLink rebased = new HstLinkImpl(link.getPath(), mount, link.getHstSiteMapItem(),
+				link.isContainerResource());
+		rebased.setSubPath(link.getSubPath());
+		rebased.setNotFound(link.isNotFound());
+		return rebased;
+	}
+
+	void write(final DataOutput out) throws IOException {
+		BreadcrumbCodec.writeString(out, contentPath);
+		BreadcrumbCodec.writeString(out, configurationPath);
+		out.writeBoolean(preview);
+	}
+
+	static LinkScope read(final ByteBuffer in) {
+		return new LinkScope(BreadcrumbCodec.readString(in), BreadcrumbCodec.readString(in), in.get() != 0);
+	}
+
+	@Override
+	public boolean equals(final Object o) {
+		if (this == o) {
+			return true;
+		}
+		if (!(o instanceof LinkScope)) {
+			return false;
+		}
+		final LinkScope that = (LinkScope) o;
+		return hashCode == that.hashCode && preview == that.preview && Objects.equals(contentPath, that.contentPath)
+				&& Objects.equals(configurationPath, that.configurationPath);
+	}
+
+	@Override
+	public int hashCode() {
+		return hashCode;
+	}
+
+	@Override
+	public String toString() {
+		return super.toString() + "[contentPath=" + contentPath + ", configuration=" + configurationPath
+				+ ", preview=" + preview + "]";
+	}
+}
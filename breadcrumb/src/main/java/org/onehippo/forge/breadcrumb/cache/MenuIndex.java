@@ -0,0 +1,311 @@
+/*
+ * Copyright 2026 Bloomreach
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onehippo.forge.breadcrumb.cache;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.hippoecm.hst.configuration.hosting.Mount;
+import org.hippoecm.hst.configuration.site.HstSite;
+import org.hippoecm.hst.configuration.sitemenu.HstSiteMenuConfiguration;
+import org.hippoecm.hst.configuration.sitemenu.HstSiteMenuItemConfiguration;
+import org.hippoecm.hst.core.linking.HstLink;
+import org.hippoecm.hst.core.linking.HstLinkCreator;
+import org.hippoecm.hst.core.request.HstRequestContext;
+import org.hippoecm.hst.core.request.ResolvedMount;
+import org.hippoecm.hst.core.request.ResolvedSiteMapItem;
+import org.hippoecm.hst.site.HstServices;
+import org.onehippo.forge.breadcrumb.om.BreadcrumbItem;
+
+/**
+ * Index from the path info of a request to the deepest expanded item of the site menus, kept per HST model generation,
+ * so a breadcrumb is created without building the site menus of the request.
+ * <p>
+ * The menu configurations of a site are indexed by the link paths of their items, once per {@link LinkScope} and
+ * model. Like in the HST site menus, an item is expanded if its link path equals the path info of the request or is
+ * a path above it, or if one of its descendants is expanded; of the expanded items on one level, the first one is
+ * followed. A lookup only reads the items of the path info and of the paths above it.
+ * <p>
+ * Menus having repository based items, of which the children are created from content on each request, or items
+ * linking to another mount by alias are not indexed. The lookup returns null when it reaches such a menu, so the
+ * caller falls back on the site menus of the request. The index is enabled by the HST container property
+ * {@value #ENABLED_PROPERTY}.
+ */
+public final class MenuIndex {
+
+	public static final String ENABLED_PROPERTY = "breadcrumb.menuIndex.enabled";
+
+	private static final boolean ENABLED = HstServices.isAvailable()
+			&& HstServices.getComponentManager().getContainerConfiguration().getBoolean(ENABLED_PROPERTY, false);
+
+	private static final MenuIndex INSTANCE = new MenuIndex();
+
+	private final ModelScoped<Map<LinkScope, Map<String, Menu>>> sites = new ModelScoped<>(ConcurrentHashMap::new);
+
+	/**
+	 * @return whether the menu index is enabled for the site webapp
+	 */
+	public static boolean isEnabled() {
+		return ENABLED;
+	}
+
+	/**
+	 * Returns the index shared within the site webapp.
+	 *
+	 * @return shared menu index
+	 */
+	public static MenuIndex getInstance() {
+		return INSTANCE;
+	}
+
+	/**
+	 * Returns the trail to the deepest expanded item of the first menu that has one, trying the menus in order.
+	 *
+	 * @param requestContext HST request context
+	 * @param menuNames      names of the menus, in order of preference
+	 * @return trail, empty if no menu has an expanded item, or null if the site menus of the request are needed
+	 */
+	public Trail getTrail(final HstRequestContext requestContext, final List<String> menuNames) {
+		final ResolvedMount resolvedMount = requestContext.getResolvedMount();
+		final ResolvedSiteMapItem resolvedSiteMapItem = requestContext.getResolvedSiteMapItem();
+		if (resolvedMount == null || resolvedSiteMapItem == null || resolvedMount.getMount().getHstSite() == null) {
+			return null;
+		}
+
+		final Mount mount = resolvedMount.getMount();
+		final Map<String, Menu> menus = sites.get(requestContext)
+				.computeIfAbsent(LinkScope.of(mount), scope -> index(mount, requestContext.getHstLinkCreator()));
+		final String pathInfo = trimSlashes(resolvedSiteMapItem.getPathInfo());
+		for (String menuName : menuNames) {
+			final Menu menu = menus.get(menuName);
+			if (menu == null) {
+				continue;
+			}
+			if (!menu.isIndexed()) {
+				return null;
+			}
+			final Trail trail = menu.getTrail(pathInfo);
+			if (!trail.isEmpty()) {
+				return trail;
+			}
+		}
+		return Trail.EMPTY;
+	}
+
+	private static Map<String, Menu> index(final Mount mount, final HstLinkCreator linkCreator) {
+		final HstSite site = mount.getHstSite();
+		final Map<String, Menu> menus = new HashMap<>();
+		for (HstSiteMenuConfiguration configuration : site.getSiteMenusConfiguration().getSiteMenuConfigurations()
+				.values()) {
+			menus.put(configuration.getName(),
+					new Menu(configuration.getSiteMenuConfigurationItems(), mount, linkCreator));
+		}
+		return menus;
+	}
+
+	private static String trimSlashes(final String path) {
+		if (path == null) {
+			return "";
+		}
+		int begin = 0;
+		int end = path.length();
+		while (begin < end && path.charAt(begin) == '/') {
+			begin++;
+		}
+		while (end > begin && path.charAt(end - 1) == '/') {
+			end--;
+		}
+		return path.substring(begin, end);
+	}
+
+	/**
+	 * Trail from a top level menu item down to the deepest expanded item.
+	 */
+	public static final class Trail {
+
+		private static final Trail EMPTY = new Trail(null);
+
+		private final Item deepest;
+
+		private Trail(final Item deepest) {
+			this.deepest = deepest;
+		}
+
+		/**
+		 * @return true if no menu item is expanded
+		 */
+		public boolean isEmpty() {
+			return deepest == null;
+		}
+
+		/**
+		 * Creates the breadcrumb items of the trail, like the menu items of the site menus would be turned into.
+		 *
+		 * @param mount mount to create the links for
+		 * @return new items, the top level item first
+		 */
+		public List<BreadcrumbItem> toItems(final Mount mount) {
+			final List<BreadcrumbItem> items = new ArrayList<>((deepest == null) ? 0 : deepest.depth + 1);
+			for (Item item = deepest; item != null; item = item.parent) {
+				items.add(new BreadcrumbItem((item.link == null) ? null : item.link.toLink(mount), item.title));
+			}
+			Collections.reverse(items);
+			return items;
+		}
+
+		/**
+		 * Resolves the deepest expanded item to its sitemap item, like a site menu item does.
+		 *
+		 * @param requestContext HST request context
+		 * @return resolved sitemap item, or null if the trail is empty or its deepest item has no link
+		 */
+		public ResolvedSiteMapItem resolveToSiteMapItem(final HstRequestContext requestContext) {
+			if (deepest == null || deepest.linkPath == null) {
+				return null;
+			}
+			final ResolvedMount resolvedMount = requestContext.getResolvedMount();
+			return resolvedMount.getMount().getHstSiteMapMatcher().match(deepest.linkPath, resolvedMount);
+		}
+	}
+
+	/**
+	 * Items of one menu in depth first order, indexed by link path.
+	 */
+	static final class Menu {
+
+		private final List<Item> items = new ArrayList<>();
+		private final Map<String, List<Item>> itemsByLinkPath = new HashMap<>();
+		private final boolean indexed;
+
+		Menu(final List<HstSiteMenuItemConfiguration> configurations, final Mount mount,
+				final HstLinkCreator linkCreator) {
+			this.indexed = addItems(configurations, null, mount, linkCreator);
+		}
+
+		/**
+		 * Adds items and their descendants.
+		 *
+		 * @return false if an item cannot be indexed
+		 */
+		private boolean addItems(final List<HstSiteMenuItemConfiguration> configurations, final Item parent,
+				final Mount mount, final HstLinkCreator linkCreator) {
+			for (HstSiteMenuItemConfiguration configuration : configurations) {
+				if (configuration.isRepositoryBased() || configuration.getMountAlias() != null) {
+					return false;
+				}
+				final String siteMapItemPath = configuration.getSiteMapItemPath();
+				final HstLink link = (siteMapItemPath == null) ? null : linkCreator.create(siteMapItemPath, mount);
+				final Item item = new Item(parent, items.size(), configuration.getName(),
+						(link == null) ? null : new DetachedLink(link),
+						(link == null || link.getPath() == null) ? null : trimSlashes(link.getPath()));
+				items.add(item);
+				if (item.linkPath != null) {
+					itemsByLinkPath.computeIfAbsent(item.linkPath, path -> new ArrayList<>(1)).add(item);
+				}
+				if (!addItems(configuration.getChildItemConfigurations(), item, mount, linkCreator)) {
+					return false;
+				}
+				item.last = items.size() - 1;
+			}
+			return true;
+		}
+
+		/**
+		 * @return false if the menu has an item that cannot be indexed
+		 */
+		boolean isIndexed() {
+			return indexed;
+		}
+
+		/**
+		 * @param pathInfo path info without leading and trailing slashes
+		 * @return trail to the deepest expanded item, empty if none
+		 */
+		Trail getTrail(final String pathInfo) {
+			final Item deepest = getDeepestExpandedItem(pathInfo);
+			return (deepest == null) ? Trail.EMPTY : new Trail(deepest);
+		}
+
+		private Item getDeepestExpandedItem(final String pathInfo) {
+			// the items of which the link path is the path info or a path above it
+			final List<Item> matches = new ArrayList<>();
+			addMatches(matches, pathInfo);
+			for (int slash = pathInfo.lastIndexOf('/'); slash > 0; slash = pathInfo.lastIndexOf('/', slash - 1)) {
+				addMatches(matches, pathInfo.substring(0, slash));
+			}
+
+			// from the top, follow the first item having a match at or below it
+			Item current = null;
+			while (true) {
+				Item first = null;
+				for (Item match : matches) {
+					if (match != current && (current == null || current.contains(match))
+							&& (first == null || match.index < first.index)) {
+						first = match;
+					}
+				}
+				if (first == null) {
+					return current;
+				}
+				Item child = first;
+				while (child.parent != current) {
+					child = child.parent;
+				}
+				current = child;
+			}
+		}
+
+		private void addMatches(final List<Item> matches, final String linkPath) {
+			final List<Item> found = itemsByLinkPath.get(linkPath);
+			if (found != null) {
+				matches.addAll(found);
+			}
+		}
+	}
+
+	/**
+	 * Menu item, holding the range of depth first indexes of its descendants.
+	 */
+	private static final class Item {
+
+		private final Item parent;
+		private final int index;
+		private final int depth;
+		private final String title;
+		private final DetachedLink link;
+		private final String linkPath;
+		private int last;
+
+		private Item(final Item parent, final int index, final String title, final DetachedLink link,
+				final String linkPath) {
+			this.parent = parent;
+			this.index = index;
+			this.depth = (parent == null) ? 0 : parent.depth + 1;
+			this.title = title;
+			this.link = link;
+			this.linkPath = linkPath;
+			this.last = index;
+		}
+
+		private boolean contains(final Item item) {
+			return item.index > index && item.index <= last;
+		}
+	}
+}
@@ -0,0 +1,140 @@
+/*
+ * Copyright 2026 Bloomreach
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onehippo.forge.breadcrumb.cache;
+
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import org.hippoecm.hst.configuration.hosting.VirtualHosts;
+import org.hippoecm.hst.core.request.HstRequestContext;
+import org.hippoecm.hst.core.request.ResolvedMount;
+
+/**
+ * Holder of a value that belongs to one generation of the HST model.
+ * <p>
+ * The HST builds a new {@link VirtualHosts} instance whenever its model is reloaded, so the identity of that
+ * instance is used as the model generation. Every generation gets its own value, created by the factory when a
+ * request of that generation first asks for it. The values are held per generation with weak keys, so while a reload
+ * is going on, the requests still served by the previous model and those of the new one each keep their own value,
+ * instead of replacing each other's. A value is dropped once the HST has released its model, so values never outlive
+ * the model they were built from.
+ *
+ * @param <T> type of the held value
+ */
+public final class ModelScoped<T> {
+
+	// stands for requests without a model, as the generations cannot be keyed by null
+	private static final Object NO_MODEL = new Object();
+
+	private final Supplier<T> factory;
+	// keyed by identity of the model, as the keys are weak
+	private final Cache<Object, T> generations = CacheBuilder.newBuilder().weakKeys().build();
+	private volatile Generation<T> latest;
+
+	public ModelScoped(final Supplier<T> factory) {
+		this.factory = factory;
+	}
+
+	/**
+	 * Returns the value for the model generation of the given request context.
+	 *
+	 * @param requestContext HST request context
+	 * @return value belonging to the model generation of the request
+	 */
+	public T get(final HstRequestContext requestContext) {
+		return get(getModel(requestContext));
+	}
+
+	/**
+	 * Returns the value for the given model generation, creating it if that generation has none yet.
+	 *
+	 * @param model model generation marker, normally the {@link VirtualHosts} instance
+	 * @return value belonging to the model generation
+	 */
+	public T get(final Object model) {
+		final Object key = (model == null) ? NO_MODEL : model;
+		final Generation<T> generation = latest;
+		if (generation != null && generation.model.get() == key) {
+			return generation.value;
+		}
+		synchronized (this) {
+			T value = generations.getIfPresent(key);
+			if (value == null) {
+				// a generation first seen is taken for the latest one, older ones are only served
+				value = factory.get();
+				generations.put(key, value);
+				latest = new Generation<>(key, value);
+			}
+			return value;
+		}
+	}
+
+	/**
+	 * Returns the value of the latest model generation without creating one.
+	 *
+	 * @return value of the latest generation, or null if no request has been served yet
+	 */
+	public T peek() {
+		final Generation<T> generation = latest;
+		return (generation == null) ? null : generation.value;
+	}
+
+	/**
+	 * Returns the values of all model generations that are still in use, e.g. to invalidate content in each of them.
+	 *
+	 * @return values, the latest generation's among them
+	 */
+	public List<T> values() {
+		return new ArrayList<>(generations.asMap().values());
+	}
+
+	/**
+	 * Drops the values of all generations.
+	 */
+	public synchronized void clear() {
+		generations.invalidateAll();
+		latest = null;
+	}
+
+	/**
+	 * Returns the model generation marker of a request context.
+	 *
+	 * @param requestContext HST request context
+	 * @return the {@link VirtualHosts} of the resolved mount, or null if not available
+	 */
+	public static Object getModel(final HstRequestContext requestContext) {
+		final ResolvedMount resolvedMount = requestContext.getResolvedMount();
+		if (resolvedMount == null || resolvedMount.getMount().getVirtualHost() == null) {
+			return null;
+		}
+		return resolvedMount.getMount().getVirtualHost().getVirtualHosts();
+	}
+
+	private static final class Generation<T> {
+
+		private final WeakReference<Object> model;
+		private final T value;
+
+		private Generation(final Object model, final T value) {
+			this.model = new WeakReference<>(model);
+			this.value = value;
+		}
+	}
+}
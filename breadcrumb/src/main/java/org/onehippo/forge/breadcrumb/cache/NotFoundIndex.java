@@ -0,0 +1,206 @@
+/*
+ * Copyright 2026 Bloomreach
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onehippo.forge.breadcrumb.cache;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.google.common.base.Strings;
+import org.hippoecm.hst.configuration.components.HstComponentConfiguration;
+import org.hippoecm.hst.configuration.hosting.Mount;
+import org.hippoecm.hst.configuration.sitemap.HstSiteMapItem;
+import org.hippoecm.hst.core.linking.HstLink;
+import org.hippoecm.hst.core.request.HstRequestContext;
+import org.hippoecm.hst.core.request.ResolvedMount;
+import org.hippoecm.hst.core.request.ResolvedSiteMapItem;
+import org.hippoecm.hst.site.HstServices;
+
+import static org.onehippo.forge.breadcrumb.components.BreadcrumbProvider.HST_PAGES_PAGENOTFOUND_ID;
+
+/**
+ * Index telling whether a link points to the 'pagenotfound' page, kept per HST model generation.
+ * <p>
+ * Sitemap items are classified once per model: whether their component configuration is the not found page, and
+ * whether they have component configuration mappings so that the link path must be matched. The outcome of such a
+ * match is remembered per mount of the link, resolved mount and link path, at most {@value #DEFAULT_MAX_SIZE} paths by
+ * default, configured by the HST container property {@value #MAX_SIZE_PROPERTY}. Since the mapped component depends
+ * on the content the link path resolves to, a remembered outcome is also evicted when that content changes, see
+ * {@link #invalidateSubtree(String)}.
+ */
+public final class NotFoundIndex {
+
+	public static final String MAX_SIZE_PROPERTY = "breadcrumb.notFoundIndex.maxSize";
+	public static final int DEFAULT_MAX_SIZE = 10000;
+
+	private static final NotFoundIndex INSTANCE = new NotFoundIndex(getConfiguredMaxSize());
+
+	private final ModelScoped<Model> models;
+
+	public NotFoundIndex(final long maxSize) {
+		this.models = new ModelScoped<>(() -> new Model(maxSize));
+	}
+
+	/**
+	 * Returns the index shared within the site webapp.
+	 *
+	 * @return shared not found index
+	 */
+	public static NotFoundIndex getInstance() {
+		return INSTANCE;
+	}
+
+	/**
+	 * Whether a link points to the 'pagenotfound' page, either by its sitemap item's component configuration or
+	 * by the component configuration that its path matches to.
+	 *
+	 * @param requestContext HST request context
+	 * @param link           link to check
+	 * @return true if the link points to the not found page
+	 */
+	public boolean isNotFound(final HstRequestContext requestContext, final HstLink link) {
+		final HstSiteMapItem siteMapItem = link.getHstSiteMapItem();
+		if (siteMapItem == null) {
+			return false;
+		}
+
+		final Model model = models.get(requestContext);
+		final SiteMapItemType type = model.itemTypes.computeIfAbsent(siteMapItem, SiteMapItemType::of);
+		if (type.notFound) {
+			return true;
+		}
+		if (!type.mapped) {
+			return false;
+		}
+
+		final ResolvedMount resolvedMount = requestContext.getResolvedMount();
+		final PathKey key = new PathKey(link.getMount(), resolvedMount.getMount(), link.getPath());
+		Match match = model.matchedPaths.getIfPresent(key);
+		if (match == null) {
+			final ResolvedSiteMapItem resolvedSiteMapItem = link.getMount().getHstSiteMapMatcher()
+					.match(link.getPath(), resolvedMount);
+			final HstComponentConfiguration componentConfiguration = (resolvedSiteMapItem == null) ? null
+					: resolvedSiteMapItem.getHstComponentConfiguration();
+			match = new Match((componentConfiguration != null)
+					&& HST_PAGES_PAGENOTFOUND_ID.equals(componentConfiguration.getName()),
+					(resolvedSiteMapItem == null) ? null : ContentPaths.of(link.getMount(), resolvedSiteMapItem));
+			model.matchedPaths.put(key, match);
+		}
+		return match.notFound;
+	}
+
+	/**
+	 * Removes the outcomes of matches that resolved to content at or below a path.
+	 *
+	 * @param path absolute repository path
+	 * @return number of removed outcomes
+	 */
+	public int invalidateSubtree(final String path) {
+		int count = 0;
+		for (Model model : models.values()) {
+			count += model.matchedPaths.invalidateSubtree(path);
+		}
+		return count;
+	}
+
+	private static int getConfiguredMaxSize() {
+		if (HstServices.isAvailable()) {
+			return HstServices.getComponentManager().getContainerConfiguration()
+					.getInt(MAX_SIZE_PROPERTY, DEFAULT_MAX_SIZE);
+		}
+		return DEFAULT_MAX_SIZE;
+	}
+
+	private static final class Model {
+
+		private final Map<HstSiteMapItem, SiteMapItemType> itemTypes = new ConcurrentHashMap<>();
+		private final PathIndexedCache<PathKey, Match> matchedPaths;
+
+		private Model(final long maxSize) {
+			this.matchedPaths = new PathIndexedCache<>(maxSize, match -> match.contentPath);
+		}
+	}
+
+	/**
+	 * Outcome of a match, with the content path it resolved to.
+	 */
+	private static final class Match {
+
+		private final boolean notFound;
+		private final String contentPath;
+
+		private Match(final boolean notFound, final String contentPath) {
+			this.notFound = notFound;
+			this.contentPath = contentPath;
+		}
+	}
+
+	private enum SiteMapItemType {
+		LINKABLE(false, false), NOT_FOUND(true, false), MAPPED(false, true);
+
+		private final boolean notFound;
+		private final boolean mapped;
+
+		SiteMapItemType(final boolean notFound, final boolean mapped) {
+			this.notFound = notFound;
+			this.mapped = mapped;
+		}
+
+		private static SiteMapItemType of(final HstSiteMapItem siteMapItem) {
+			final String componentConfigurationId = siteMapItem.getComponentConfigurationId();
+			if (!Strings.isNullOrEmpty(componentConfigurationId)
+					&& componentConfigurationId.endsWith(HST_PAGES_PAGENOTFOUND_ID)) {
+				return NOT_FOUND;
+			}
+			return siteMapItem.getComponentConfigurationIdMappings().isEmpty() ? LINKABLE : MAPPED;
+		}
+	}
+
+	/**
+	 * Link path of a link for a mount, e.g. of another channel, within the resolved mount it was matched in. Mounts
+	 * belong to the model generation of the index and are compared by identity.
+	 */
+	private static final class PathKey {
+
+		private final Mount linkMount;
+		private final Mount mount;
+		private final String path;
+
+		private PathKey(final Mount linkMount, final Mount mount, final String path) {
+			this.linkMount = linkMount;
+			this.mount = mount;
+			this.path = path;
+		}
+
+		@Override
+		public boolean equals(final Object o) {
+			if (this == o) {
+				return true;
+			}
+			if (!(o instanceof PathKey)) {
+				return false;
+			}
+			final PathKey that = (PathKey) o;
+			return linkMount == that.linkMount && mount == that.mount
+					&& (path == null ? that.path == null : path.equals(that.path));
+		}
+
+		@Override
+		public int hashCode() {
+			return 31 * (31 * System.identityHashCode(linkMount) + System.identityHashCode(mount))
+					+ (path == null ? 0 : path.hashCode());
+		}
+	}
+}
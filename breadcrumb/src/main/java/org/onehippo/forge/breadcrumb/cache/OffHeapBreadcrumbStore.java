@@ -0,0 +1,477 @@
+/*
+ * Copyright 2026 Bloomreach
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onehippo.forge.breadcrumb.cache;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.hippoecm.hst.configuration.hosting.Mount;
+import org.onehippo.forge.breadcrumb.om.Breadcrumb;
+
+/**
+ * Off-heap tier of the {@link BreadcrumbCache}, holding breadcrumbs in the form of {@link BreadcrumbCodec} in direct
+ * byte buffers, so the breadcrumbs of a whole site can be kept without objects for the garbage collector to trace.
+ * <p>
+ * Records are appended to slabs of a fixed size, which are reused in turn: when the byte limit is reached, the
+ * oldest slab is overwritten and its records are evicted. The index is an open addressing hash table of primitive
+ * arrays, holding the hash code of a key and the slab sequence number and offset of its record; the encoded key in
+ * the record, following the hash code, confirms a match. Index slots of overwritten slabs are dropped lazily, on lookup
+ * and when the table grows. There is no index by content path: a subtree is removed by scanning the live records,
+ * comparing their encoded content paths in place, without decoding them.
+ * <p>
+ * Reads share a lock and hold it shortly: iterating all breadcrumbs decodes them in batches, passing each batch to
+ * the consumer after releasing the lock. The scan for a subtree holds the read lock as well, only the records put
+ * meanwhile being scanned again holding the write lock. Puts are exclusive and skipped when the lock is taken.
+ * Evictions retry taking the lock instead of waiting for it, as a waiting writer makes all new reads wait too.
+ */
+final class OffHeapBreadcrumbStore {
+
+	private static final int MAX_SLAB_SIZE = 1 << 20;
+	private static final int MIN_SLAB_SIZE = 1 << 12;
+	private static final int MIN_CAPACITY = 16;
+	private static final long EMPTY = 0L;
+	private static final long REMOVED = -1L;
+	private static final int FOR_EACH_BATCH_SIZE = 256;
+	private static final long MIN_BACK_OFF_NANOS = TimeUnit.MICROSECONDS.toNanos(10);
+	private static final long MAX_BACK_OFF_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+	private final ByteBuffer[] slabs;
+	private final int slabSize;
+	private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+	private int[] hashes = new int[MIN_CAPACITY];
+	private long[] locations = new long[MIN_CAPACITY];
+	// slots that are not empty, including removed ones
+	private int used;
+	// sequence number of the slab being written, the first one being 1
+	private int sequence;
+	private int writeOffset;
+
+	/**
+	 * Constructor
+	 *
+	 * @param maxBytes maximum number of bytes of the slabs
+	 */
+	OffHeapBreadcrumbStore(final long maxBytes) {
+		this.slabSize = (int) Math.max(MIN_SLAB_SIZE, Math.min(MAX_SLAB_SIZE, maxBytes / 8));
+		this.slabs = new ByteBuffer[(int) Math.max(2L, Math.min(Integer.MAX_VALUE, maxBytes / slabSize))];
+	}
+
+	/**
+	 * Returns the breadcrumb for a key.
+	 *
+	 * @param key   cache key
+	 * @param mount mount to create the links for
+	 * @return decoded breadcrumb with its content path, or null if not stored
+	 */
+	BreadcrumbSnapshot.Restored get(final BreadcrumbCacheKey key, final Mount mount) {
+		final byte[] keyBytes = encodeKey(key);
+		lock.readLock().lock();
+		try {
+			final int slot = find(spread(key.hashCode()), keyBytes);
+			if (slot < 0) {
+				return null;
+			}
+			final ByteBuffer in = record(locations[slot]);
+			skipKey(in);
+			final String contentPath = BreadcrumbCodec.readString(in);
+			return new BreadcrumbSnapshot.Restored(contentPath, BreadcrumbCodec.readBreadcrumb(in, mount));
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	/**
+	 * Stores a breadcrumb, unless another thread holds the lock or the breadcrumb does not fit in a slab.
+	 *
+	 * @param key         cache key
+	 * @param contentPath absolute path of the content the breadcrumb was generated for, null if none
+	 * @param breadcrumb  breadcrumb
+	 * @return true if stored
+	 */
+	boolean put(final BreadcrumbCacheKey key, final String contentPath, final Breadcrumb breadcrumb) {
+		final byte[] keyBytes = encodeKey(key);
+		final int hash = spread(key.hashCode());
+		final byte[] record;
+		try {
+			final ByteArrayOutputStream bytes = new ByteArrayOutputStream(keyBytes.length + 256);
+			final DataOutputStream out = new DataOutputStream(bytes);
+			// the hash code leads, so the index slot of a record found by scanning is found without the key
+			out.writeInt(hash);
+			BreadcrumbCodec.writeVarInt(out, keyBytes.length);
+			out.write(keyBytes);
+			BreadcrumbCodec.writeString(out, contentPath);
+			BreadcrumbCodec.writeBreadcrumb(out, breadcrumb);
+			record = bytes.toByteArray();
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+		if (record.length > slabSize || !lock.writeLock().tryLock()) {
+			return false;
+		}
+		try {
+			final int slot = find(hash, keyBytes);
+			final long location = append(record);
+			if (slot >= 0) {
+				locations[slot] = location;
+			} else {
+				if ((used + 1) * 2 > hashes.length) {
+					rehash();
+				}
+				insert(hash, location);
+			}
+			return true;
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	/**
+	 * Removes the breadcrumb for a key.
+	 *
+	 * @param key cache key
+	 */
+	void invalidate(final BreadcrumbCacheKey key) {
+		final byte[] keyBytes = encodeKey(key);
+		lockForEviction();
+		try {
+			final int slot = find(spread(key.hashCode()), keyBytes);
+			if (slot >= 0) {
+				locations[slot] = REMOVED;
+			}
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	/**
+	 * Removes the breadcrumbs generated for content at or below a path. The live records are scanned for their
+	 * content path holding the read lock; the write lock is held for removing the matches only, and for scanning the
+	 * records put during the first scan.
+	 *
+	 * @param path absolute repository path
+	 * @return number of removed breadcrumbs
+	 */
+	int invalidateSubtree(final String path) {
+		final byte[] pathBytes = (path.endsWith("/") ? path.substring(0, path.length() - 1) : path)
+				.getBytes(StandardCharsets.UTF_8);
+		final long[] matches;
+		final long scanned;
+		lock.readLock().lock();
+		try {
+			matches = findSubtree(pathBytes, EMPTY);
+			// records are appended, so the ones put after the scan have a higher location
+			scanned = ((long) sequence << 32) | writeOffset;
+		} finally {
+			lock.readLock().unlock();
+		}
+		lockForEviction();
+		try {
+			return remove(matches) + remove(findSubtree(pathBytes, scanned));
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	/**
+	 * Removes all breadcrumbs. The slabs are kept and written over.
+	 */
+	void invalidateAll() {
+		lockForEviction();
+		try {
+			hashes = new int[MIN_CAPACITY];
+			locations = new long[MIN_CAPACITY];
+			used = 0;
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	/**
+	 * Passes all stored breadcrumbs to a consumer. The breadcrumbs are decoded in batches holding the read lock, and
+	 * passed on after releasing it, so the consumer may take its time, e.g. for writing a file.
+	 *
+	 * @param consumer receiver of the key, content path and breadcrumb, the latter having links without mount
+	 */
+	void forEach(final BreadcrumbCache.EntryConsumer consumer) {
+		final long[] stored;
+		lock.readLock().lock();
+		try {
+			stored = locations.clone();
+		} finally {
+			lock.readLock().unlock();
+		}
+		final List<Entry> batch = new ArrayList<>(FOR_EACH_BATCH_SIZE);
+		for (int start = 0; start < stored.length; start += FOR_EACH_BATCH_SIZE) {
+			batch.clear();
+			lock.readLock().lock();
+			try {
+				for (int i = start; i < Math.min(stored.length, start + FOR_EACH_BATCH_SIZE); i++) {
+					// records evicted or replaced since copying the index are skipped
+					if (isLive(stored[i]) && slotOf(stored[i]) >= 0) {
+						final ByteBuffer in = record(stored[i]);
+						BreadcrumbCodec.readVarInt(in);
+						final BreadcrumbCacheKey key = BreadcrumbCacheKey.read(in);
+						final String contentPath = BreadcrumbCodec.readString(in);
+						batch.add(new Entry(key, contentPath, BreadcrumbCodec.readBreadcrumb(in, null)));
+					}
+				}
+			} finally {
+				lock.readLock().unlock();
+			}
+			for (Entry entry : batch) {
+				consumer.accept(entry.key, entry.contentPath, entry.breadcrumb);
+			}
+		}
+	}
+
+	/**
+	 * Returns the number of stored breadcrumbs, counting the live index slots.
+	 *
+	 * @return number of breadcrumbs
+	 */
+	long size() {
+		lock.readLock().lock();
+		try {
+			long count = 0L;
+			for (long location : locations) {
+				if (isLive(location)) {
+					count++;
+				}
+			}
+			return count;
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	private int find(final int hash, final byte[] keyBytes) {
+		final int mask = hashes.length - 1;
+		// the table is at most half full, so there always is an empty slot ending the probe
+		for (int slot = hash & mask; ; slot = (slot + 1) & mask) {
+			final long location = locations[slot];
+			if (location == EMPTY) {
+				return -1;
+			}
+			if (hashes[slot] == hash && isLive(location) && keyEquals(location, keyBytes)) {
+				return slot;
+			}
+		}
+	}
+
+	private void insert(final int hash, final long location) {
+		final int mask = hashes.length - 1;
+		int slot = hash & mask;
+		while (locations[slot] != EMPTY && locations[slot] != REMOVED) {
+			slot = (slot + 1) & mask;
+		}
+		if (locations[slot] == EMPTY) {
+			used++;
+		}
+		hashes[slot] = hash;
+		locations[slot] = location;
+	}
+
+	private void rehash() {
+		final int[] oldHashes = hashes;
+		final long[] oldLocations = locations;
+		int live = 0;
+		for (long location : oldLocations) {
+			if (isLive(location)) {
+				live++;
+			}
+		}
+		// at most a quarter full after rehashing, dropping removed slots and those of overwritten slabs
+		int capacity = MIN_CAPACITY;
+		while (capacity < live * 4) {
+			capacity <<= 1;
+		}
+		hashes = new int[capacity];
+		locations = new long[capacity];
+		used = 0;
+		for (int slot = 0; slot < oldLocations.length; slot++) {
+			if (isLive(oldLocations[slot])) {
+				insert(oldHashes[slot], oldLocations[slot]);
+			}
+		}
+	}
+
+	/**
+	 * Takes the write lock for an eviction, which unlike a put cannot be skipped. It is retried with a growing pause
+	 * instead of waited for, so reads never queue behind it.
+	 */
+	private void lockForEviction() {
+		long pause = MIN_BACK_OFF_NANOS;
+		while (!lock.writeLock().tryLock()) {
+			LockSupport.parkNanos(pause);
+			pause = Math.min(pause * 2, MAX_BACK_OFF_NANOS);
+		}
+	}
+
+	private int slotOf(final long location) {
+		final int mask = hashes.length - 1;
+		for (int slot = recordHash(location) & mask; locations[slot] != EMPTY; slot = (slot + 1) & mask) {
+			if (locations[slot] == location) {
+				return slot;
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * Returns the live locations from a minimum location on, of records with a content path at or below a path.
+	 */
+	private long[] findSubtree(final byte[] pathBytes, final long since) {
+		long[] matches = new long[16];
+		int count = 0;
+		for (long location : locations) {
+			if (location >= since && isLive(location) && isInSubtree(location, pathBytes)) {
+				if (count == matches.length) {
+					matches = Arrays.copyOf(matches, count * 2);
+				}
+				matches[count++] = location;
+			}
+		}
+		return Arrays.copyOf(matches, count);
+	}
+
+	/**
+	 * Compares the encoded content path of a record with a path, byte by byte in the slab.
+	 */
+	private boolean isInSubtree(final long location, final byte[] pathBytes) {
+		final ByteBuffer in = record(location);
+		skipKey(in);
+		// the encoded length is one more than the number of bytes, zero standing for no content path
+		final int length = BreadcrumbCodec.readVarInt(in) - 1;
+		if (length < pathBytes.length) {
+			return false;
+		}
+		final int start = in.position();
+		for (int i = 0; i < pathBytes.length; i++) {
+			if (in.get(start + i) != pathBytes[i]) {
+				return false;
+			}
+		}
+		return length == pathBytes.length || in.get(start + pathBytes.length) == '/';
+	}
+
+	/**
+	 * Removes the index slots of the locations that are still live and indexed.
+	 */
+	private int remove(final long[] matches) {
+		int count = 0;
+		for (long location : matches) {
+			final int slot = isLive(location) ? slotOf(location) : -1;
+			if (slot >= 0) {
+				locations[slot] = REMOVED;
+				count++;
+			}
+		}
+		return count;
+	}
+
+	private long append(final byte[] record) {
+		if (sequence == 0 || writeOffset + record.length > slabSize) {
+			// the slab of sequence number (sequence - slabs.length) is overwritten, which evicts its records
+			sequence++;
+			final int index = sequence % slabs.length;
+			if (slabs[index] == null) {
+				slabs[index] = ByteBuffer.allocateDirect(slabSize);
+			}
+			writeOffset = 0;
+		}
+		final ByteBuffer slab = slabs[sequence % slabs.length].duplicate();
+		slab.position(writeOffset);
+		slab.put(record);
+		final long location = ((long) sequence << 32) | writeOffset;
+		writeOffset += record.length;
+		return location;
+	}
+
+	private boolean isLive(final long location) {
+		if (location == EMPTY || location == REMOVED) {
+			return false;
+		}
+		return (int) (location >>> 32) > sequence - slabs.length;
+	}
+
+	private ByteBuffer record(final long location) {
+		final ByteBuffer record = slabs[(int) (location >>> 32) % slabs.length].duplicate();
+		record.position((int) location + Integer.BYTES);
+		return record;
+	}
+
+	private int recordHash(final long location) {
+		return slabs[(int) (location >>> 32) % slabs.length].getInt((int) location);
+	}
+
+	private boolean keyEquals(final long location, final byte[] keyBytes) {
+		final ByteBuffer in = record(location);
+		if (BreadcrumbCodec.readVarInt(in) != keyBytes.length) {
+			return false;
+		}
+		final int start = in.position();
+		for (int i = 0; i < keyBytes.length; i++) {
+			if (in.get(start + i) != keyBytes[i]) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private static void skipKey(final ByteBuffer in) {
+		final int length = BreadcrumbCodec.readVarInt(in);
+		in.position(in.position() + length);
+	}
+
+	private static byte[] encodeKey(final BreadcrumbCacheKey key) {
+		try {
+			final ByteArrayOutputStream bytes = new ByteArrayOutputStream(128);
+			key.write(new DataOutputStream(bytes));
+			return bytes.toByteArray();
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	private static int spread(final int hashCode) {
+		return hashCode ^ (hashCode >>> 16);
+	}
+
+	private static final class Entry {
+
+		private final BreadcrumbCacheKey key;
+		private final String contentPath;
+		private final Breadcrumb breadcrumb;
+
+		private Entry(final BreadcrumbCacheKey key, final String contentPath, final Breadcrumb breadcrumb) {
+			this.key = key;
+			this.contentPath = contentPath;
+			this.breadcrumb = breadcrumb;
+		}
+	}
+}
@@ -0,0 +1,159 @@
+/*
+ * Copyright 2026 Bloomreach
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onehippo.forge.breadcrumb.cache;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.Function;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.RemovalNotification;
+
+/**
+ * Bounded cache of which the entries are also indexed by the repository path they depend on, so all entries
+ * depending on a subtree can be evicted at once.
+ * <p>
+ * Reads are not synchronized. Writes and evictions are, keeping the path index in line with the cache; they only
+ * happen on cache misses and content changes.
+ *
+ * @param <K> type of the keys
+ * @param <V> type of the values
+ */
+final class PathIndexedCache<K, V> {
+
+	private final Cache<K, V> cache;
+	private final Function<V, String> pathFunction;
+	private final NavigableMap<String, Set<K>> keysByPath = new TreeMap<>();
+
+	/**
+	 * Constructor
+	 *
+	 * @param maxSize      maximum number of entries
+	 * @param pathFunction function returning the path a value depends on, or null if it depends on no content
+	 */
+	PathIndexedCache(final long maxSize, final Function<V, String> pathFunction) {
+		this.pathFunction = pathFunction;
+		this.cache = CacheBuilder.newBuilder().maximumSize(maxSize).removalListener(this::onRemoval).build();
+	}
+
+	V getIfPresent(final K key) {
+		return cache.getIfPresent(key);
+	}
+
+	synchronized void put(final K key, final V value) {
+		// a replaced value is removed from the index by the listener before the new one is added
+		cache.put(key, value);
+		final String path = pathFunction.apply(value);
+		if (path != null) {
+			keysByPath.computeIfAbsent(path, p -> new HashSet<>(4)).add(key);
+		}
+	}
+
+	synchronized V putIfAbsent(final K key, final V value) {
+		final V existing = cache.getIfPresent(key);
+		if (existing != null) {
+			return existing;
+		}
+		put(key, value);
+		return value;
+	}
+
+	synchronized void invalidate(final K key) {
+		cache.invalidate(key);
+	}
+
+	/**
+	 * Evicts the entries that depend on a path or on a path below it.
+	 *
+	 * @param path absolute repository path
+	 * @return number of evicted entries
+	 */
+	synchronized int invalidateSubtree(final String path) {
+		final List<K> keys = getSubtreeKeys(path);
+		cache.invalidateAll(keys);
+		return keys.size();
+	}
+
+	/**
+	 * Returns the values that depend on a path or on a path below it.
+	 *
+	 * @param path absolute repository path
+	 * @return cached values
+	 */
+	synchronized List<V> getSubtree(final String path) {
+		final List<V> values = new ArrayList<>();
+		for (K key : getSubtreeKeys(path)) {
+			final V value = cache.getIfPresent(key);
+			if (value != null) {
+				values.add(value);
+			}
+		}
+		return values;
+	}
+
+	private List<K> getSubtreeKeys(final String path) {
+		final List<K> keys = new ArrayList<>();
+		final Set<K> exact = keysByPath.get(path);
+		if (exact != null) {
+			keys.addAll(exact);
+		}
+		final String prefix = path.endsWith("/") ? path : path + "/";
+		// all paths starting with the prefix sort before the prefix with its last character incremented
+		final String end = prefix.substring(0, prefix.length() - 1) + (char) ('/' + 1);
+		for (Set<K> descendants : keysByPath.subMap(prefix, true, end, false).values()) {
+			keys.addAll(descendants);
+		}
+		return keys;
+	}
+
+	synchronized void invalidateAll() {
+		cache.invalidateAll();
+		keysByPath.clear();
+	}
+
+	long size() {
+		return cache.size();
+	}
+
+	Map<K, V> asMap() {
+		return cache.asMap();
+	}
+
+	private void onRemoval(final RemovalNotification<K, V> notification) {
+		final V value = notification.getValue();
+		final String path = (value == null) ? null : pathFunction.apply(value);
+		if (path == null) {
+			return;
+		}
+		synchronized (this) {
+			// notifications may be delivered late, by another thread, after the key was cached again
+			final V current = cache.asMap().get(notification.getKey());
+			if (current != null && path.equals(pathFunction.apply(current))) {
+				return;
+			}
+			final Set<K> keys = keysByPath.get(path);
+			if (keys != null && keys.remove(notification.getKey()) && keys.isEmpty()) {
+				keysByPath.remove(path);
+			}
+		}
+	}
+}
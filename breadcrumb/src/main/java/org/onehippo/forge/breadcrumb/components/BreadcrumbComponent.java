@@ -15,24 +15,180 @@
  */
 package org.onehippo.forge.breadcrumb.components;
 
+import java.util.Objects;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import org.hippoecm.hst.component.support.bean.BaseHstComponent;
+import org.hippoecm.hst.configuration.sitemap.HstSiteMapItem;
 import org.hippoecm.hst.core.component.HstComponentException;
 import org.hippoecm.hst.core.component.HstRequest;
 import org.hippoecm.hst.core.component.HstResponse;
+import org.hippoecm.hst.core.container.ContainerConstants;
 import org.hippoecm.hst.core.parameters.ParametersInfo;
+import org.hippoecm.hst.core.request.ResolvedSiteMapItem;
+import org.onehippo.forge.breadcrumb.cache.BreadcrumbCache;
+import org.onehippo.forge.breadcrumb.cache.BreadcrumbCacheKey;
+import org.onehippo.forge.breadcrumb.cache.BreadcrumbFragmentCache;
+import org.onehippo.forge.breadcrumb.cache.ModelScoped;
+import org.onehippo.forge.breadcrumb.om.Breadcrumb;
+import org.onehippo.forge.breadcrumb.om.BreadcrumbHtmlRenderer;
 
 /**
  * Standard HST Breadcrumb component.
+ * <p>
+ * The component reuses one {@link BreadcrumbProvider} per sitemap item and
+ * render variant, within one generation of the HST model. The parameters info
+ * is only read to create a provider, so changed parameters take effect with
+ * the model reload that publishing them triggers. Parameters whose values
+ * depend on the request beyond its sitemap item, e.g. placeholders for the
+ * wildcards a request path matched, are resolved once, for the first request
+ * of the sitemap item.
+ * <p>
+ * If parameter "breadcrumb-html-fragment" is set, the breadcrumb is also
+ * rendered to an HTML fragment, model "breadcrumbHtml", which is cached for
+ * live requests.
  */
 @ParametersInfo(type = BreadcrumbParametersInfo.class)
 public class BreadcrumbComponent extends BaseHstComponent {
 
+	private static final int MAX_PROVIDERS = 100;
+
+	private final ModelScoped<Cache<ProviderKey, ProviderEntry>> providers = new ModelScoped<>(
+			() -> CacheBuilder.newBuilder().maximumSize(MAX_PROVIDERS).build());
+
 	@Override
 	public void doBeforeRender(final HstRequest request, final HstResponse response) throws HstComponentException {
 		super.doBeforeRender(request, response);
 
-        final BreadcrumbParametersInfo info = getComponentParametersInfo(request);
-        final BreadcrumbProvider breadcrumbProvider = new BreadcrumbProvider(this, info);
-		request.setModel(BreadcrumbProvider.ATTRIBUTE_NAME, breadcrumbProvider.getBreadcrumb(request));
+		final ProviderEntry entry = getProviderEntry(request);
+		final BreadcrumbProvider breadcrumbProvider = entry.provider;
+		final Breadcrumb breadcrumb = breadcrumbProvider.getBreadcrumb(request);
+		request.setModel(BreadcrumbProvider.ATTRIBUTE_NAME, breadcrumb);
+
+		if (entry.htmlFragment) {
+			request.setModel(BreadcrumbProvider.ATTRIBUTE_HTML_NAME,
+					getBreadcrumbHtml(request, breadcrumbProvider, breadcrumb));
+		}
+	}
+
+	/**
+	 * Returns the breadcrumb rendered as HTML fragment, from the shared
+	 * fragment cache if the request is cacheable. Fragments of stale
+	 * breadcrumbs are not cached.
+	 *
+	 * @param request    HST request
+	 * @param provider   breadcrumb provider of the request
+	 * @param breadcrumb breadcrumb of the request
+	 * @return HTML fragment
+	 */
+	protected String getBreadcrumbHtml(final HstRequest request, final BreadcrumbProvider provider,
+			final Breadcrumb breadcrumb) {
+		if (provider.isCacheable(request)) {
+			final BreadcrumbCacheKey key = provider.getCacheKey(request);
+			if (!BreadcrumbCache.getInstance().isStale(request.getRequestContext(), key)) {
+				return BreadcrumbFragmentCache.getInstance().get(request.getRequestContext(), key,
+						() -> provider.getDependencyPath(request), () -> renderBreadcrumbHtml(request, breadcrumb));
+			}
+		}
+		return renderBreadcrumbHtml(request, breadcrumb);
+	}
+
+	/**
+	 * Renders the breadcrumb as HTML fragment. Override for custom markup.
+	 *
+	 * @param request    HST request
+	 * @param breadcrumb breadcrumb to render
+	 * @return HTML fragment
+	 */
+	protected String renderBreadcrumbHtml(final HstRequest request, final Breadcrumb breadcrumb) {
+		return BreadcrumbHtmlRenderer.render(breadcrumb, request.getRequestContext());
+	}
+
+	/**
+	 * Returns the provider for the parameter values of the current request,
+	 * creating it if it does not exist yet.
+	 *
+	 * @param request HST request
+	 * @return breadcrumb provider
+	 */
+	protected BreadcrumbProvider getBreadcrumbProvider(final HstRequest request) {
+		return getProviderEntry(request).provider;
+	}
+
+	/**
+	 * Returns the provider entry for the sitemap item and the render variant
+	 * of the request, in the model generation of the request. The parameters
+	 * info is read on a miss only.
+	 */
+	private ProviderEntry getProviderEntry(final HstRequest request) {
+		final ResolvedSiteMapItem resolvedSiteMapItem = request.getRequestContext().getResolvedSiteMapItem();
+		final ProviderKey key = new ProviderKey(
+				(resolvedSiteMapItem == null) ? null : resolvedSiteMapItem.getHstSiteMapItem(),
+				request.getAttribute(ContainerConstants.RENDER_VARIANT));
+
+		final Cache<ProviderKey, ProviderEntry> generation = providers.get(request.getRequestContext());
+		ProviderEntry entry = generation.getIfPresent(key);
+		if (entry == null) {
+			final BreadcrumbParametersInfo info = getComponentParametersInfo(request);
+			entry = new ProviderEntry(createBreadcrumbProvider(BreadcrumbConfiguration.of(info)),
+					info.getHtmlFragment());
+			generation.put(key, entry);
+		}
+		return entry;
+	}
+
+	/**
+	 * Creates a breadcrumb provider. Override to use a custom provider.
+	 *
+	 * @param configuration parsed provider configuration
+	 * @return breadcrumb provider
+	 */
+	protected BreadcrumbProvider createBreadcrumbProvider(final BreadcrumbConfiguration configuration) {
+		return new BreadcrumbProvider(this, configuration);
+	}
+
+	private static final class ProviderEntry {
+
+		private final BreadcrumbProvider provider;
+		private final boolean htmlFragment;
+
+		private ProviderEntry(final BreadcrumbProvider provider, final boolean htmlFragment) {
+			this.provider = provider;
+			this.htmlFragment = htmlFragment;
+		}
+	}
+
+	/**
+	 * Sitemap item the parameters of the component are resolved against, with
+	 * the variant rendered. Items are compared by identity, as the keys of one
+	 * model generation all refer to the items of that model.
+	 */
+	private static final class ProviderKey {
+
+		private final HstSiteMapItem siteMapItem;
+		private final Object renderVariant;
+
+		private ProviderKey(final HstSiteMapItem siteMapItem, final Object renderVariant) {
+			this.siteMapItem = siteMapItem;
+			this.renderVariant = renderVariant;
+		}
+
+		@Override
+		public boolean equals(final Object o) {
+			if (this == o) {
+				return true;
+			}
+			if (!(o instanceof ProviderKey)) {
+				return false;
+			}
+			final ProviderKey that = (ProviderKey) o;
+			return siteMapItem == that.siteMapItem && Objects.equals(renderVariant, that.renderVariant);
+		}
+
+		@Override
+		public int hashCode() {
+			return 31 * System.identityHashCode(siteMapItem) + Objects.hashCode(renderVariant);
+		}
 	}
 }
@@ -0,0 +1,253 @@
+/*
+ * Copyright 2026 Bloomreach
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onehippo.forge.breadcrumb.components;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+import com.google.common.base.Strings;
+import org.hippoecm.hst.component.support.bean.BaseHstComponent;
+
+import static org.onehippo.forge.breadcrumb.components.BreadcrumbProvider.DEFAULT_MENU_NAME;
+import static org.onehippo.forge.breadcrumb.components.BreadcrumbProvider.DEFAULT_SEPARATOR;
+
+/**
+ * Immutable, parsed configuration of a {@link BreadcrumbProvider}.
+ * <p>
+ * Instances are equal if all their settings are equal, so they can be used as keys for providers and results.
+ */
+public final class BreadcrumbConfiguration {
+
+	public static final int DEFAULT_COLLAPSE_HEAD = 1;
+
+	private final List<String> menuNames;
+	private final String separator;
+	private final BreadcrumbProvider.LinkNotFoundMode linkNotFoundMode;
+	private final boolean addTrailingDocumentOnly;
+	private final boolean addContentBased;
+	private final boolean cacheEnabled;
+	private final boolean lazy;
+	private final int maxDepth;
+	private final int collapseHead;
+	private final int hashCode;
+
+	/**
+	 * Constructor
+	 *
+	 * @param breadcrumbMenus         comma separated menu names, null for the
+	 *                                default menu
+	 * @param separator               separator, null or empty for the default
+	 * @param linkNotFoundMode        mode for links to the not found page, may be
+	 *                                null
+	 * @param addTrailingDocumentOnly whether to add just one trailing document
+	 * @param addContentBased         whether to create the breadcrumb from content
+	 *                                if no menu item is expanded
+	 * @param cacheEnabled            whether breadcrumbs are cached across
+	 *                                requests
+	 * @param lazy                    whether the items are computed when first
+	 *                                read
+	 */
+	public BreadcrumbConfiguration(final String breadcrumbMenus, final String separator,
+			final BreadcrumbProvider.LinkNotFoundMode linkNotFoundMode, final boolean addTrailingDocumentOnly,
+			final boolean addContentBased, final boolean cacheEnabled, final boolean lazy) {
+		this(breadcrumbMenus, separator, linkNotFoundMode, addTrailingDocumentOnly, addContentBased, cacheEnabled,
+				lazy, 0, DEFAULT_COLLAPSE_HEAD);
+	}
+
+	/**
+	 * Constructor
+	 *
+	 * @param breadcrumbMenus         comma separated menu names, null for the
+	 *                                default menu
+	 * @param separator               separator, null or empty for the default
+	 * @param linkNotFoundMode        mode for links to the not found page, may be
+	 *                                null
+	 * @param addTrailingDocumentOnly whether to add just one trailing document
+	 * @param addContentBased         whether to create the breadcrumb from content
+	 *                                if no menu item is expanded
+	 * @param cacheEnabled            whether breadcrumbs are cached across
+	 *                                requests
+	 * @param lazy                    whether the items are computed when first
+	 *                                read
+	 * @param maxDepth                maximum number of content levels, 0 or less
+	 *                                for no maximum
+	 * @param collapseHead            number of highest content levels kept when
+	 *                                the middle levels are collapsed
+	 */
+	public BreadcrumbConfiguration(final String breadcrumbMenus, final String separator,
+			final BreadcrumbProvider.LinkNotFoundMode linkNotFoundMode, final boolean addTrailingDocumentOnly,
+			final boolean addContentBased, final boolean cacheEnabled, final boolean lazy, final int maxDepth,
+			final int collapseHead) {
+		this.menuNames = parseMenuNames(breadcrumbMenus);
+		this.separator = Strings.isNullOrEmpty(separator) ? DEFAULT_SEPARATOR : separator;
+		this.linkNotFoundMode = linkNotFoundMode;
+		this.addTrailingDocumentOnly = addTrailingDocumentOnly;
+		this.addContentBased = addContentBased;
+		this.cacheEnabled = cacheEnabled;
+		this.lazy = lazy;
+		this.maxDepth = Math.max(maxDepth, 0);
+		// at least one level next to the current content is kept
+		this.collapseHead = (this.maxDepth == 0) ? 0 : Math.max(0, Math.min(collapseHead, this.maxDepth - 1));
+		this.hashCode = Objects.hash(menuNames, this.separator, linkNotFoundMode, addTrailingDocumentOnly,
+				addContentBased, cacheEnabled, lazy, this.maxDepth, this.collapseHead);
+	}
+
+	/**
+	 * Creates the configuration from the parameters info of a breadcrumb component.
+	 *
+	 * @param info parameters info
+	 * @return configuration
+	 */
+	public static BreadcrumbConfiguration of(final BreadcrumbParametersInfo info) {
+		return new BreadcrumbConfiguration(info.getBreadcrumbMenus(), info.getSeparator(),
+				BreadcrumbProvider.LinkNotFoundMode.safeValueOf(info.getLinkNotFoundMode()),
+				info.getAddTrailingDocumentOnly(), info.getAddContentBased(), info.getCacheEnabled(),
+				info.getLazy(), info.getMaxDepth(), info.getCollapseHead());
+	}
+
+	/**
+	 * Creates the configuration from the raw parameters of a component.
+	 *
+	 * @param component               component having the breadcrumb parameters
+	 * @param addTrailingDocumentOnly whether to add just one trailing document
+	 * @return configuration
+	 */
+	public static BreadcrumbConfiguration of(final BaseHstComponent component, final boolean addTrailingDocumentOnly) {
+		return new BreadcrumbConfiguration(component.getComponentParameter(BreadcrumbProvider.PARAMETER_MENUS),
+				component.getComponentParameter(BreadcrumbProvider.PARAMETER_SEPARATOR),
+				BreadcrumbProvider.LinkNotFoundMode.safeValueOf(
+						component.getComponentParameter(BreadcrumbProvider.PARAMETER_LINK_NOT_FOUND_MODE)),
+				addTrailingDocumentOnly,
+				Boolean.parseBoolean(component.getComponentParameter(BreadcrumbProvider.PARAMETER_ADD_CONTENT_BASED)),
+				Boolean.parseBoolean(component.getComponentParameter(BreadcrumbProvider.PARAMETER_CACHE_ENABLED)),
+				Boolean.parseBoolean(component.getComponentParameter(BreadcrumbProvider.PARAMETER_LAZY)),
+				parseInt(component.getComponentParameter(BreadcrumbProvider.PARAMETER_MAX_DEPTH), 0),
+				parseInt(component.getComponentParameter(BreadcrumbProvider.PARAMETER_COLLAPSE_HEAD),
+						DEFAULT_COLLAPSE_HEAD));
+	}
+
+	private static int parseInt(final String value, final int defaultValue) {
+		if (Strings.isNullOrEmpty(value)) {
+			return defaultValue;
+		}
+		try {
+			return Integer.parseInt(value.trim());
+		} catch (NumberFormatException e) {
+			return defaultValue;
+		}
+	}
+
+	private static List<String> parseMenuNames(final String breadcrumbMenus) {
+		if (breadcrumbMenus == null) {
+			return List.of(DEFAULT_MENU_NAME);
+		}
+
+		final List<String> list = new ArrayList<>();
+		for (String name : breadcrumbMenus.split(",")) {
+			list.add(name.trim());
+		}
+		// an immutable list, so List.copyOf in cache keys does not copy it
+		return List.copyOf(list);
+	}
+
+	/**
+	 * @return unmodifiable list of the configured menu names
+	 */
+	public List<String> getMenuNames() {
+		return menuNames;
+	}
+
+	/**
+	 * @return configured or default separator
+	 */
+	public String getSeparator() {
+		return separator;
+	}
+
+	/**
+	 * @return mode for links to the not found page, or null
+	 */
+	public BreadcrumbProvider.LinkNotFoundMode getLinkNotFoundMode() {
+		return linkNotFoundMode;
+	}
+
+	public boolean isAddTrailingDocumentOnly() {
+		return addTrailingDocumentOnly;
+	}
+
+	public boolean isAddContentBased() {
+		return addContentBased;
+	}
+
+	public boolean isCacheEnabled() {
+		return cacheEnabled;
+	}
+
+	public boolean isLazy() {
+		return lazy;
+	}
+
+	/**
+	 * @return maximum number of content levels, 0 for no maximum
+	 */
+	public int getMaxDepth() {
+		return maxDepth;
+	}
+
+	/**
+	 * @return number of highest content levels kept when collapsing, less than
+	 *         the maximum depth
+	 */
+	public int getCollapseHead() {
+		return collapseHead;
+	}
+
+	@Override
+	public boolean equals(final Object o) {
+		if (this == o) {
+			return true;
+		}
+		if (!(o instanceof BreadcrumbConfiguration)) {
+			return false;
+		}
+
+		final BreadcrumbConfiguration that = (BreadcrumbConfiguration) o;
+		return hashCode == that.hashCode
+				&& addTrailingDocumentOnly == that.addTrailingDocumentOnly
+				&& addContentBased == that.addContentBased
+				&& cacheEnabled == that.cacheEnabled
+				&& lazy == that.lazy
+				&& maxDepth == that.maxDepth
+				&& collapseHead == that.collapseHead
+				&& linkNotFoundMode == that.linkNotFoundMode
+				&& menuNames.equals(that.menuNames)
+				&& separator.equals(that.separator);
+	}
+
+	@Override
+	public int hashCode() {
+		return hashCode;
+	}
+
+	@Override
+	public String toString() {
+		return super.toString() + "[menus=" + menuNames + ", separator=" + separator + ", linkNotFoundMode="
+				+ linkNotFoundMode + ", addTrailingDocumentOnly=" + addTrailingDocumentOnly + ", addContentBased="
+				+ addContentBased + ", cacheEnabled=" + cacheEnabled + ", lazy=" + lazy + ", maxDepth=" + maxDepth
+				+ ", collapseHead=" + collapseHead + "]";
+	}
+}
@@ -35,4 +35,19 @@ public interface BreadcrumbParametersInfo {
 
 	@Parameter(name = BreadcrumbProvider.PARAMETER_ADD_CONTENT_BASED, defaultValue = "false")
 	boolean getAddContentBased();
+
+	@Parameter(name = BreadcrumbProvider.PARAMETER_CACHE_ENABLED, defaultValue = "false", hideInChannelManager = true)
+	boolean getCacheEnabled();
+
+	@Parameter(name = BreadcrumbProvider.PARAMETER_LAZY, defaultValue = "false", hideInChannelManager = true)
+	boolean getLazy();
+
+	@Parameter(name = BreadcrumbProvider.PARAMETER_MAX_DEPTH, defaultValue = "0")
+	int getMaxDepth();
+
+	@Parameter(name = BreadcrumbProvider.PARAMETER_COLLAPSE_HEAD, defaultValue = "1")
+	int getCollapseHead();
+
+	@Parameter(name = BreadcrumbProvider.PARAMETER_HTML_FRAGMENT, defaultValue = "false", hideInChannelManager = true)
+	boolean getHtmlFragment();
 }
@@ -18,21 +18,42 @@ package org.onehippo.forge.breadcrumb.components;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.jcr.RepositoryException;
 
 import com.google.common.base.Strings;
 import org.hippoecm.hst.component.support.bean.BaseHstComponent;
 import org.hippoecm.hst.configuration.HstNodeTypes;
-import org.hippoecm.hst.configuration.sitemap.HstSiteMapItem;
+import org.hippoecm.hst.configuration.hosting.Mount;
+import org.hippoecm.hst.content.beans.ObjectBeanManagerException;
 import org.hippoecm.hst.content.beans.standard.HippoBean;
 import org.hippoecm.hst.content.beans.standard.HippoDocument;
 import org.hippoecm.hst.core.component.HstRequest;
+import org.hippoecm.hst.core.linking.HstLink;
 import org.hippoecm.hst.core.request.HstRequestContext;
 import org.hippoecm.hst.core.request.ResolvedSiteMapItem;
 import org.hippoecm.hst.core.sitemenu.HstSiteMenu;
 import org.hippoecm.hst.core.sitemenu.HstSiteMenuItem;
 
+import org.onehippo.forge.breadcrumb.cache.AncestorEntry;
+import org.onehippo.forge.breadcrumb.cache.AncestorIndex;
+import org.onehippo.forge.breadcrumb.cache.BreadcrumbCache;
+import org.onehippo.forge.breadcrumb.cache.BreadcrumbCacheKey;
+import org.onehippo.forge.breadcrumb.cache.BreadcrumbInvalidationListener;
+import org.onehippo.forge.breadcrumb.cache.ContentPaths;
+import org.onehippo.forge.breadcrumb.cache.DetachedBreadcrumb;
+import org.onehippo.forge.breadcrumb.cache.LinkMemo;
+import org.onehippo.forge.breadcrumb.cache.LinkScope;
+import org.onehippo.forge.breadcrumb.cache.MenuIndex;
+import org.onehippo.forge.breadcrumb.cache.NotFoundIndex;
+import org.onehippo.forge.breadcrumb.metrics.BreadcrumbMetrics;
 import org.onehippo.forge.breadcrumb.om.Breadcrumb;
 import org.onehippo.forge.breadcrumb.om.BreadcrumbItem;
+import org.onehippo.forge.breadcrumb.om.LazyBreadcrumb;
+import org.onehippo.forge.breadcrumb.valve.BreadcrumbPrefetchValve;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -53,30 +74,67 @@ import org.slf4j.LoggerFactory;
  * moving upwards, until the highest menu item is encountered, or, if the
  * 'breadcrumb-add-content-based' flag is up, until the site content base bean
  * is reached.
+ * <p>
+ * If the 'breadcrumb-cache-enabled' flag is up, breadcrumbs generated for live
+ * requests are cached across requests, see {@link BreadcrumbCache}, and
+ * walks up the content tree use the shared {@link AncestorIndex} and
+ * {@link LinkMemo}.
+ * <p>
+ * If the 'breadcrumb-lazy' flag is up, the breadcrumb items are not computed
+ * before they are read, see {@link LazyBreadcrumb}.
+ * <p>
+ * Within a request, the breadcrumb is computed once per provider class,
+ * component class and configuration: later calls, also from other components
+ * of the same class or providers with the same configuration, return a copy
+ * of the breadcrumb stored in the request context.
+ * <p>
+ * A provider holds no request state: it is immutable and thread-safe, so it
+ * can be reused across requests.
  */
 public class BreadcrumbProvider {
 
 	private static final Logger log = LoggerFactory.getLogger(BreadcrumbProvider.class);
 
+	private static final String REQUEST_ATTRIBUTE_PREFIX = BreadcrumbProvider.class.getName() + ".breadcrumb.";
+	private static final ConcurrentMap<List<Object>, String> REQUEST_ATTRIBUTE_NAMES = new ConcurrentHashMap<>();
+	private static final AtomicInteger REQUEST_ATTRIBUTE_COUNTER = new AtomicInteger();
+
+	// per provider class, whether items of beans are customized while items of ancestor index entries are not
+	private static final ClassValue<Boolean> BEAN_ITEMS_ONLY_CUSTOMIZED = new ClassValue<Boolean>() {
+		@Override
+		protected Boolean computeValue(final Class<?> type) {
+			return (isOverridden(type, HstRequest.class, HippoBean.class)
+					|| isOverridden(type, HstRequest.class, HippoBean.class, boolean.class))
+					&& !isOverridden(type, HstRequest.class, AncestorEntry.class);
+		}
+	};
+
 	public static final String ATTRIBUTE_NAME = "breadcrumb";
+	public static final String ATTRIBUTE_HTML_NAME = "breadcrumbHtml";
 
 	public static final String PARAMETER_MENUS = "breadcrumb-menus";
 	public static final String PARAMETER_SEPARATOR = "breadcrumb-separator";
 	public static final String PARAMETER_ADD_CONTENT_BASED = "breadcrumb-add-content-based";
 	public static final String PARAMETER_LINK_NOT_FOUND_MODE = "breadcrumb-link-not-found-mode";
 	public static final String PARAMETER_ADD_TRAILING_DOCUMENT_ONLY =  "breadcrumb-add-trailing-document-only";
+	public static final String PARAMETER_CACHE_ENABLED = "breadcrumb-cache-enabled";
+	public static final String PARAMETER_LAZY = "breadcrumb-lazy";
+	public static final String PARAMETER_HTML_FRAGMENT = "breadcrumb-html-fragment";
+	public static final String PARAMETER_MAX_DEPTH = "breadcrumb-max-depth";
+	public static final String PARAMETER_COLLAPSE_HEAD = "breadcrumb-collapse-head";
 
 	public static final String DEFAULT_MENU_NAME = "main";
 	public static final String DEFAULT_SEPARATOR = "&#187;";
 	public static final String HST_PAGES_PAGENOTFOUND_ID = "pagenotfound";
+	public static final String ELLIPSIS_TITLE = "\u2026";
 
 	private final BaseHstComponent component;
-	private boolean addTrailingDocumentOnly;
+	private final BreadcrumbConfiguration configuration;
+	private final boolean addTrailingDocumentOnly;
 	private final boolean addContentBased;
 	private final LinkNotFoundMode linkNotFoundMode;
-
-	private final String breadcrumbMenus;
-	private final String breadcrumbSeparator;
+	private final boolean cacheEnabled;
+	private final String requestAttributeName;
 
 	public enum LinkNotFoundMode {
 		HIDE, UNLINK;
@@ -96,13 +154,38 @@ public class BreadcrumbProvider {
 	 * @param component component that has extra flag "separator" this provider
 	 */
 	public BreadcrumbProvider(final BaseHstComponent component, final BreadcrumbParametersInfo info) {
+		this(component, BreadcrumbConfiguration.of(info));
+	}
+
+	/**
+	 * Constructor
+	 *
+	 * @param component     component that creates this provider
+	 * @param configuration parsed provider configuration
+	 */
+	public BreadcrumbProvider(final BaseHstComponent component, final BreadcrumbConfiguration configuration) {
 		this.component = component;
+		this.configuration = configuration;
 
-		this.breadcrumbMenus = info.getBreadcrumbMenus();
-		this.breadcrumbSeparator = info.getSeparator();
-		this.addContentBased = info.getAddContentBased();
-		this.linkNotFoundMode = LinkNotFoundMode.safeValueOf(info.getLinkNotFoundMode());
-		this.addTrailingDocumentOnly = info.getAddTrailingDocumentOnly();
+		this.addContentBased = configuration.isAddContentBased();
+		this.linkNotFoundMode = configuration.getLinkNotFoundMode();
+		this.addTrailingDocumentOnly = configuration.isAddTrailingDocumentOnly();
+		this.cacheEnabled = configuration.isCacheEnabled();
+		this.requestAttributeName = getRequestAttributeName(getClass(), component.getClass(), configuration);
+	}
+
+	/**
+	 * Returns the name of the request context attribute holding the breadcrumb
+	 * of a request, unique per provider class, component class and
+	 * configuration. The component class is part of it as components may
+	 * resolve their content beans differently, e.g. by overriding
+	 * getBeanForResolvedSiteMapItem.
+	 */
+	private static String getRequestAttributeName(final Class<?> providerClass, final Class<?> componentClass,
+			final BreadcrumbConfiguration configuration) {
+		return REQUEST_ATTRIBUTE_NAMES.computeIfAbsent(
+				List.of(providerClass.getName(), componentClass.getName(), configuration),
+				key -> REQUEST_ATTRIBUTE_PREFIX + REQUEST_ATTRIBUTE_COUNTER.incrementAndGet());
 	}
 
     /**
@@ -112,12 +195,7 @@ public class BreadcrumbProvider {
      */
     @SuppressWarnings("unused")
     public BreadcrumbProvider(final BaseHstComponent component) {
-        this.component = component;
-
-        this.breadcrumbMenus = component.getComponentParameter(PARAMETER_MENUS);
-        this.breadcrumbSeparator = component.getComponentParameter(PARAMETER_SEPARATOR);
-        this.addContentBased = Boolean.parseBoolean(component.getComponentParameter(PARAMETER_ADD_CONTENT_BASED));
-        this.linkNotFoundMode = LinkNotFoundMode.safeValueOf(component.getComponentParameter(PARAMETER_LINK_NOT_FOUND_MODE));
+        this(component, BreadcrumbConfiguration.of(component, false));
     }
 
     /**
@@ -130,60 +208,230 @@ public class BreadcrumbProvider {
 	 */
 	@SuppressWarnings("unused")
 	public BreadcrumbProvider(final BaseHstComponent component, final boolean addTrailingDocumentOnly) {
-		this(component);
-		this.addTrailingDocumentOnly = addTrailingDocumentOnly;
+		this(component, BreadcrumbConfiguration.of(component, addTrailingDocumentOnly));
 	}
 
 	/**
-	 * Generate the breadcrumb.
+	 * Generate the breadcrumb, or get it from the cache if caching is enabled.
+	 * If the provider is configured to be lazy, the items are generated when
+	 * they are first read.
+	 * <p>
+	 * The breadcrumb is stored in the request context, so later calls for the
+	 * same request by providers of the same class, component class and
+	 * configuration return it without generating it again. The first caller
+	 * gets the stored breadcrumb itself, so a single caller costs no copy.
+	 * Later callers get a copy of their own, with new items and links, taken
+	 * when they ask for it: changes the first caller made before are part of
+	 * that copy. The same holds for lazy breadcrumbs, of which a later caller
+	 * gets a lazy copy, computing the stored breadcrumb's items if not done yet.
 	 *
 	 * @param request HST request
 	 * @return the generated breadcrumb
 	 */
 	public Breadcrumb getBreadcrumb(final HstRequest request) {
+		final HstRequestContext context = request.getRequestContext();
+		final Object stored = context.getAttribute(requestAttributeName);
+		if (stored instanceof LazyBreadcrumb) {
+			final LazyBreadcrumb shared = (LazyBreadcrumb) stored;
+			return new LazyBreadcrumb(() -> new DetachedBreadcrumb(shared).toBreadcrumb().getItems(), getSeparator(),
+					linkNotFoundMode);
+		}
+		if (stored instanceof Breadcrumb) {
+			return new DetachedBreadcrumb((Breadcrumb) stored).toBreadcrumb();
+		}
 
-		final List<String> siteMenuNames = getSitemenuNames();
-		log.debug("{} creating breadcrumb based on site menu names {}", this.getClass().getName(), siteMenuNames);
+		final Breadcrumb breadcrumb = configuration.isLazy()
+				? new LazyBreadcrumb(() -> getEagerBreadcrumb(request).getItems(), getSeparator(), linkNotFoundMode)
+				: getEagerBreadcrumb(request);
+		context.setAttribute(requestAttributeName, breadcrumb);
+		return breadcrumb;
+	}
 
-		// match deepest menu item for multiple configured menus
-		int i = 0;
-		HstSiteMenuItem deepestMenuItem = null;
-		while (i < siteMenuNames.size() && deepestMenuItem == null) {
-			final HstSiteMenu menu = request.getRequestContext().getHstSiteMenus().getSiteMenu(siteMenuNames.get(i));
-			if (menu != null) {
-				deepestMenuItem = menu.getDeepestExpandedItem();
-				log.debug("{} creating breadcrumb based on deepest menu item '{}' of menu '{}'",
-						this.getClass().getName(), (deepestMenuItem == null) ? "null" : deepestMenuItem.getName(),
-						menu.getName());
+	private Breadcrumb getEagerBreadcrumb(final HstRequest request) {
+
+		if (cacheEnabled && isCacheable(request)) {
+			// no generator lambda here: capturing the request would allocate on every hit
+			final BreadcrumbCache cache = BreadcrumbCache.getInstance();
+			final BreadcrumbCacheKey key = getCacheKey(request);
+			final Breadcrumb cached = cache.getIfPresent(request.getRequestContext(), key);
+			if (cached != null) {
+				return cached;
 			}
-			i++;
+			return cache.put(request.getRequestContext(), key, getDependencyPath(request), createBreadcrumb(request));
 		}
 
+		return createBreadcrumb(request);
+	}
+
+	/**
+	 * Generate the breadcrumb.
+	 *
+	 * @param request HST request
+	 * @return the generated breadcrumb
+	 */
+	protected Breadcrumb createBreadcrumb(final HstRequest request) {
+
+		final BreadcrumbMetrics metrics = BreadcrumbMetrics.getInstance();
+		final List<String> siteMenuNames = getSitemenuNames();
+		final boolean debug = log.isDebugEnabled();
+		if (debug) {
+			log.debug("{} creating breadcrumb based on site menu names {}", this.getClass().getName(), siteMenuNames);
+		}
+
+		// match deepest menu item for multiple configured menus, from the menu index if it covers the menus
+		long start = System.nanoTime();
+		final MenuIndex.Trail trail = isMenuIndexEnabled()
+				? MenuIndex.getInstance().getTrail(request.getRequestContext(), siteMenuNames) : null;
+		final HstSiteMenuItem deepestMenuItem = (trail == null) ? getDeepestExpandedMenuItem(request, siteMenuNames)
+				: null;
+		metrics.recordPhase(BreadcrumbMetrics.Phase.MENU_RESOLUTION, start);
+
 		// create items from a current menu item and upwards
-		final List<BreadcrumbItem> breadcrumbItems = getMenuBreadcrumbItems(request, deepestMenuItem);
-		log.debug("{} created {} menu based breadcrumb items: {}", this.getClass().getName(), breadcrumbItems.size(),
-				breadcrumbItems);
+		start = System.nanoTime();
+		final List<BreadcrumbItem> breadcrumbItems = (trail == null) ? getMenuBreadcrumbItems(request, deepestMenuItem)
+				: trail.toItems(request.getRequestContext().getResolvedMount().getMount());
+		metrics.recordPhase(BreadcrumbMetrics.Phase.MENU_ITEMS, start);
+		if (debug) {
+			log.debug("{} created {} menu based breadcrumb items: {}", this.getClass().getName(),
+					breadcrumbItems.size(), breadcrumbItems);
+		}
 
 		// create items from current content bean and upwards to a current menu item or to content base
-		final List<BreadcrumbItem> contentBreadcrumbItems = getContentBreadcrumbItems(request, deepestMenuItem);
-		log.debug("{} created {} content based breadcrumb items: {}", this.getClass().getName(),
-				contentBreadcrumbItems.size(), contentBreadcrumbItems);
+		start = System.nanoTime();
+		final List<BreadcrumbItem> contentBreadcrumbItems = (trail == null)
+				? getContentBreadcrumbItems(request, deepestMenuItem)
+				: getContentBreadcrumbItems(request, !trail.isEmpty(),
+						trail.resolveToSiteMapItem(request.getRequestContext()));
+		metrics.recordPhase(BreadcrumbMetrics.Phase.CONTENT_ITEMS, start);
+		if (debug) {
+			log.debug("{} created {} content based breadcrumb items: {}", this.getClass().getName(),
+					contentBreadcrumbItems.size(), contentBreadcrumbItems);
+		}
 
 		breadcrumbItems.addAll(contentBreadcrumbItems);
 
-		log.info("{} created {} breadcrumb items: {}", this.getClass().getName(), breadcrumbItems.size(),
-				breadcrumbItems.stream().map(BreadcrumbItem::getTitle).toArray());
+		if (log.isInfoEnabled()) {
+			log.info("{} created {} breadcrumb items: {}", this.getClass().getName(), breadcrumbItems.size(),
+					breadcrumbItems.stream().map(BreadcrumbItem::getTitle).toArray());
+		}
 
 		// post process the generated breadcrumb for any entries that point to pagenotfound
 		if (linkNotFoundMode != null) {
+			start = System.nanoTime();
 			postProcessItemsForNotFoundLinks(request, breadcrumbItems);
+			metrics.recordPhase(BreadcrumbMetrics.Phase.NOT_FOUND_POST_PROCESSING, start);
 			log.info("{} post processed breadcrumb entries, using mode for not found links: {}",
 					this.getClass().getName(), linkNotFoundMode);
 		}
 
+		metrics.recordBreadcrumb(breadcrumbItems.size());
 		return new Breadcrumb(breadcrumbItems, getSeparator(), linkNotFoundMode);
 	}
 
+	/**
+	 * Finds the deepest expanded item of the first site menu that has one.
+	 *
+	 * @return deepest expanded menu item, or null if none
+	 */
+	private HstSiteMenuItem getDeepestExpandedMenuItem(final HstRequest request, final List<String> siteMenuNames) {
+		final boolean debug = log.isDebugEnabled();
+		int i = 0;
+		HstSiteMenuItem deepestMenuItem = null;
+		while (i < siteMenuNames.size() && deepestMenuItem == null) {
+			final HstSiteMenu menu = request.getRequestContext().getHstSiteMenus().getSiteMenu(siteMenuNames.get(i));
+			if (menu != null) {
+				deepestMenuItem = menu.getDeepestExpandedItem();
+				if (debug) {
+					log.debug("{} creating breadcrumb based on deepest menu item '{}' of menu '{}'",
+							this.getClass().getName(), (deepestMenuItem == null) ? "null" : deepestMenuItem.getName(),
+							menu.getName());
+				}
+			}
+			i++;
+		}
+		return deepestMenuItem;
+	}
+
+	/**
+	 * Whether the deepest expanded menu item is looked up in the
+	 * {@link MenuIndex} instead of in the site menus of the request. The menu
+	 * items then do not pass
+	 * {@link #getMenuBreadcrumbItems(HstRequest, HstSiteMenuItem)} and
+	 * {@link #getBreadcrumbItem(HstRequest, HstSiteMenuItem)}, so subclasses
+	 * overriding those should keep the index disabled. By default, this is set
+	 * by HST container property {@value MenuIndex#ENABLED_PROPERTY}.
+	 *
+	 * @return true to look up the deepest expanded menu item in the index
+	 */
+	protected boolean isMenuIndexEnabled() {
+		return MenuIndex.isEnabled();
+	}
+
+	/**
+	 * Whether the breadcrumb of a request may be served from and stored in the
+	 * cache. By default, only anonymous live requests are cacheable: preview
+	 * and channel manager requests may show unpublished changes, and requests
+	 * of an authenticated user or with a subject based session may read
+	 * content, such as titles of restricted folders, that others cannot.
+	 *
+	 * @param request HST request
+	 * @return true if the breadcrumb of this request can be cached
+	 */
+	protected boolean isCacheable(final HstRequest request) {
+		final HstRequestContext context = request.getRequestContext();
+		if (context.isPreview() || context.isChannelManagerPreviewRequest() || context.getResolvedMount() == null
+				|| context.getResolvedSiteMapItem() == null) {
+			return false;
+		}
+		final Mount mount = context.getResolvedMount().getMount();
+		return !mount.isSubjectBasedSession() && !mount.isAuthenticated()
+				&& !context.getResolvedSiteMapItem().isAuthenticated() && context.getSubject() == null
+				&& request.getUserPrincipal() == null;
+	}
+
+	/**
+	 * Creates the key under which the breadcrumb of a request is cached.
+	 *
+	 * @param request HST request
+	 * @return cache key
+	 */
+	protected BreadcrumbCacheKey getCacheKey(final HstRequest request) {
+		final HstRequestContext context = request.getRequestContext();
+		return new BreadcrumbCacheKey(getClass().getName(), getComponent().getClass().getName(),
+				LinkScope.of(context.getResolvedMount().getMount()),
+				context.getResolvedSiteMapItem().getPathInfo(), getSitemenuNames(), getSeparator(),
+				linkNotFoundMode, addTrailingDocumentOnly, addContentBased, configuration.getMaxDepth(),
+				configuration.getCollapseHead());
+	}
+
+	/**
+	 * Returns the content path the cached breadcrumb of a request depends on.
+	 * A change to content at or above this path evicts the breadcrumb, see
+	 * {@link BreadcrumbInvalidationListener}. By default, this is the path of
+	 * the bean {@link #getBeanForResolvedSiteMapItem} resolves, so that an
+	 * overridden bean resolution is followed, or the handle path if that bean is
+	 * a document. If no bean resolves, it is the content path of the resolved
+	 * sitemap item, so that content created there later evicts the breadcrumb.
+	 *
+	 * @param request HST request
+	 * @return absolute content path, or null if the breadcrumb depends on no
+	 *         content
+	 */
+	protected String getDependencyPath(final HstRequest request) {
+		final HstRequestContext context = request.getRequestContext();
+		final ResolvedSiteMapItem resolvedSiteMapItem = context.getResolvedSiteMapItem();
+		final HippoBean bean = getBeanForResolvedSiteMapItem(request, resolvedSiteMapItem);
+		if (bean == null || bean.getPath() == null) {
+			return ContentPaths.of(context.getResolvedMount().getMount(), resolvedSiteMapItem);
+		}
+		final String path = bean.getPath();
+		if (bean instanceof HippoDocument) {
+			final int slash = path.lastIndexOf('/');
+			return (slash > 0) ? path.substring(0, slash) : path;
+		}
+		return path;
+	}
+
 	/**
 	 * The multiple site menu names are configured by configuration parameter
 	 * "breadcrumb-menus", defaulting to "main".
@@ -201,21 +449,19 @@ public class BreadcrumbProvider {
 	 * The multiple site menu names are configured by configuration parameter
 	 * "breadcrumb-menus", defaulting to "main".
 	 *
-	 * @return all configured menu names, or "main"
+	 * @return unmodifiable list of all configured menu names, or "main"
 	 */
 	protected List<String> getSitemenuNames() {
+		return configuration.getMenuNames();
+	}
 
-		final List<String> list = new ArrayList<>();
-		if (breadcrumbMenus == null) {
-			list.add(DEFAULT_MENU_NAME);
-		} else {
-			final String[] names = breadcrumbMenus.split(",");
-			for (String name : names) {
-				list.add(name.trim());
-			}
-		}
-
-		return list;
+	/**
+	 * Get the parsed configuration of this provider.
+	 *
+	 * @return the provider configuration
+	 */
+	public BreadcrumbConfiguration getConfiguration() {
+		return configuration;
 	}
 
 	/**
@@ -249,7 +495,7 @@ public class BreadcrumbProvider {
 	 * @return configured or default separator between breadcrumb items
 	 */
 	protected String getSeparator() {
-		return (!breadcrumbSeparator.isEmpty()) ? breadcrumbSeparator : DEFAULT_SEPARATOR;
+		return configuration.getSeparator();
 	}
 
 	/**
@@ -303,6 +549,22 @@ public class BreadcrumbProvider {
 	 */
 	protected List<BreadcrumbItem> getContentBreadcrumbItems(final HstRequest request,
 			final HstSiteMenuItem deepestExpandedMenuItem) {
+		return getContentBreadcrumbItems(request, deepestExpandedMenuItem != null,
+				(deepestExpandedMenuItem == null) ? null : deepestExpandedMenuItem.resolveToSiteMapItem());
+	}
+
+	/**
+	 * Generate the trailing breadcrumb items below the deepest expanded menu
+	 * item, given the sitemap item it resolves to.
+	 *
+	 * @param request                    HST request
+	 * @param menuItemExpanded           whether a menu item is expanded
+	 * @param deepestExpandedmenuItemSmi resolved sitemap item of the deepest
+	 *                                   expanded menu item, may be null
+	 * @return list of trailing breadcrumb items
+	 */
+	protected List<BreadcrumbItem> getContentBreadcrumbItems(final HstRequest request, final boolean menuItemExpanded,
+			final ResolvedSiteMapItem deepestExpandedmenuItemSmi) {
 
 		final List<BreadcrumbItem> items = new ArrayList<>();
 
@@ -311,8 +573,7 @@ public class BreadcrumbProvider {
 
 		if (currentBean != null) {
 
-			if (deepestExpandedMenuItem != null) {
-				final ResolvedSiteMapItem deepestExpandedmenuItemSmi = deepestExpandedMenuItem.resolveToSiteMapItem();
+			if (menuItemExpanded) {
 				final HippoBean deepestExpandedMenuItemBean = getBeanForResolvedSiteMapItem(request,
 						deepestExpandedmenuItemSmi);
 
@@ -393,16 +654,7 @@ public class BreadcrumbProvider {
 	 */
 	protected void addAncestorBasedParentItems(final List<BreadcrumbItem> items, final HippoBean currentBean,
 			final HippoBean ancestorBean, final HstRequest request) {
-
-		HippoBean currentItemBean = currentBean;
-		while (!currentItemBean.isSelf(ancestorBean)) {
-			final BreadcrumbItem item = getBreadcrumbItem(request, currentItemBean);
-			if (item != null) {
-				items.add(item);
-			}
-			currentItemBean = currentItemBean.getParentBean();
-		}
-
+		addParentItems(items, currentBean, ancestorBean, Integer.MAX_VALUE, false, request);
 	}
 
 	/**
@@ -434,17 +686,32 @@ public class BreadcrumbProvider {
 				trailingPath = trailingPath.substring(0,trailingPath.indexOf("/" + HstNodeTypes.INDEX ));
 			}
 
-			int steps = trailingPath.split("/").length;
+			final int steps = countSegments(trailingPath);
 
-			HippoBean currentItemBean = currentBean;
-			for (int i = 0; i < steps; i++) {
-				BreadcrumbItem item = getBreadcrumbItem(request, currentItemBean);
-				if (item != null) {
-					items.add(item);
-				}
-				currentItemBean = currentItemBean.getParentBean();
+			addParentItems(items, currentBean, null, steps, false, request);
+		}
+	}
+
+	/**
+	 * Counts the segments of a path like {@code String.split("/")} does, without
+	 * allocating: an empty path has one segment, trailing slashes are ignored.
+	 */
+	private static int countSegments(final String path) {
+		int end = path.length();
+		while (end > 0 && path.charAt(end - 1) == '/') {
+			end--;
+		}
+		if (end == 0) {
+			return path.isEmpty() ? 1 : 0;
+		}
+
+		int segments = 1;
+		for (int i = 0; i < end; i++) {
+			if (path.charAt(i) == '/') {
+				segments++;
 			}
 		}
+		return segments;
 	}
 
 	/**
@@ -461,40 +728,250 @@ public class BreadcrumbProvider {
 
 		final HippoBean siteContentBean = request.getRequestContext().getSiteContentBaseBean();
 
+		// go up to until site content base bean
+		addParentItems(items, currentBean, siteContentBean, Integer.MAX_VALUE, true, request);
+	}
+
+	/**
+	 * Add breadcrumb items from the current bean upwards, until the stop bean
+	 * or the maximum number of steps is reached.
+	 * <p>
+	 * If there are more levels than the configured maximum depth, only the
+	 * levels next to the current bean and the configured number of highest
+	 * levels are added, with an ellipsis item in between that links to the
+	 * highest level left out, see {@link #createEllipsisItem}. The levels in
+	 * between are passed by the same walk, without creating items or links for
+	 * them. If the number of levels cannot be derived from the paths, e.g.
+	 * because the current bean is not below the stop bean, the walk ends after
+	 * the maximum depth, with the ellipsis item if levels are left above it.
+	 *
+	 * @param items        list of breadcrumb items
+	 * @param currentBean  bean to start from
+	 * @param stopBean     bean at which to stop, not added itself (may be null)
+	 * @param maxSteps     maximum number of levels to add
+	 * @param skipNotFound whether to skip items without link or with a not
+	 *                     found link
+	 * @param request      HST request
+	 */
+	private void addParentItems(final List<BreadcrumbItem> items, final HippoBean currentBean,
+			final HippoBean stopBean, final int maxSteps, final boolean skipNotFound, final HstRequest request) {
+
+		final int maxDepth = configuration.getMaxDepth();
+		if (maxDepth > 0) {
+			final int levels = Math.min(maxSteps, countLevels(currentBean, (stopBean == null) ? null
+					: stopBean.getPath()));
+			if (levels == Integer.MAX_VALUE) {
+				// one step more, to find out whether levels are left for the ellipsis
+				walkParentItems(items, currentBean, stopBean, maxDepth + 1, skipNotFound, maxDepth, Integer.MAX_VALUE,
+						request);
+				return;
+			}
+			if (levels > maxDepth) {
+				final int head = configuration.getCollapseHead();
+				walkParentItems(items, currentBean, stopBean, levels, skipNotFound, maxDepth - head, levels - head,
+						request);
+				return;
+			}
+		}
+
+		walkParentItems(items, currentBean, stopBean, maxSteps, skipNotFound, Integer.MAX_VALUE, Integer.MAX_VALUE,
+				request);
+	}
+
+	/**
+	 * Walks from the current bean upwards, adding an item per level.
+	 * <p>
+	 * If {@link #isAncestorEntryItemsEnabled()}, parent levels that are known
+	 * in the ancestor index are not loaded as beans but created by
+	 * {@link #getBreadcrumbItem(HstRequest, AncestorEntry)}.
+	 *
+	 * @param collapseFrom first step collapsed into the ellipsis item, which
+	 *                     links to the level of that step
+	 * @param collapseTo   first step after the collapsed ones
+	 */
+	private void walkParentItems(final List<BreadcrumbItem> items, final HippoBean currentBean,
+			final HippoBean stopBean, final int maxSteps, final boolean skipNotFound, final int collapseFrom,
+			final int collapseTo, final HstRequest request) {
+
+		final String stopPath = (stopBean == null) ? null : stopBean.getPath();
+		final AncestorIndex index = isAncestorEntryItemsEnabled() ? getAncestorIndex(request) : null;
+		if (index != null) {
+			BreadcrumbPrefetchValve.awaitPrefetch(request.getRequestContext());
+		}
+
+		// per level, either the bean or its index entry is known, or both
 		HippoBean bean = currentBean;
+		AncestorEntry entry = (index == null) ? null : index.get(currentBean.getIdentifier());
+		int steps = 0;
+		while ((bean != null || entry != null) && steps < maxSteps) {
+			final boolean stop = (bean != null) ? (stopBean != null && bean.isSelf(stopBean))
+					: entry.getPath().equals(stopPath);
+			if (stop) {
+				return;
+			}
 
-		// go up to until site content base bean
-		while (!bean.isSelf(siteContentBean)) {
-			final BreadcrumbItem item = getBreadcrumbItem(request, bean);
-			if ((item != null) && (item.getLink() != null) && !item.getLink().isNotFound()) {
-				items.add(item);
+			if (steps < collapseFrom || steps >= collapseTo) {
+				addItem(items, (bean != null) ? getBreadcrumbItem(request, bean) : getBreadcrumbItem(request, entry),
+						skipNotFound);
+			} else if (steps == collapseFrom) {
+				final BreadcrumbItem levelItem = (bean != null) ? getBreadcrumbItem(request, bean)
+						: getBreadcrumbItem(request, entry);
+				addItem(items, createEllipsisItem(request, levelItem), skipNotFound);
+			}
+			if (++steps >= maxSteps) {
+				// do not load the parent of the last level
+				return;
+			}
+
+			final AncestorEntry parentEntry = (entry == null) ? null : index.get(entry.getParentIdentifier());
+			if (parentEntry != null) {
+				bean = null;
+				entry = parentEntry;
+				continue;
+			}
+
+			if (bean == null) {
+				bean = getBeanByIdentifier(request, entry.getIdentifier());
+				if (bean == null) {
+					return;
+				}
+			}
+			final HippoBean parentBean = bean.getParentBean();
+			BreadcrumbMetrics.getInstance().recordParentBeanLoaded();
+			if (index != null) {
+				index.put(AncestorEntry.of(bean, parentBean));
+			}
+			bean = parentBean;
+			entry = (index == null || parentBean == null) ? null : index.get(parentBean.getIdentifier());
+		}
+	}
+
+	/**
+	 * Whether the levels of a content walk that are known in an ancestor index
+	 * may be created by {@link #getBreadcrumbItem(HstRequest, AncestorEntry)}
+	 * instead of by {@link #getBreadcrumbItem(HstRequest, HippoBean)}. By
+	 * default, this is false for a subclass that overrides the latter, e.g. for
+	 * custom titles or links, but not the former: its walks load every level as
+	 * a bean, so the customization applies to all levels. Such a subclass
+	 * can override {@link #getBreadcrumbItem(HstRequest, AncestorEntry)} too,
+	 * with the same customization, to walk by the index again.
+	 *
+	 * @return true to create items of indexed levels from their index entries
+	 */
+	protected boolean isAncestorEntryItemsEnabled() {
+		return !BEAN_ITEMS_ONLY_CUSTOMIZED.get(getClass());
+	}
+
+	/**
+	 * Whether a provider class or one of its superclasses below this class
+	 * declares a getBreadcrumbItem method with the given parameter types.
+	 */
+	private static boolean isOverridden(final Class<?> type, final Class<?>... parameterTypes) {
+		for (Class<?> c = type; c != null && c != BreadcrumbProvider.class; c = c.getSuperclass()) {
+			try {
+				c.getDeclaredMethod("getBreadcrumbItem", parameterTypes);
+				return true;
+			} catch (NoSuchMethodException e) {
+				// not declared by this class, try its superclass
 			}
-			bean = bean.getParentBean();
+		}
+		return false;
+	}
+
+	private static void addItem(final List<BreadcrumbItem> items, final BreadcrumbItem item,
+			final boolean skipNotFound) {
+		if ((item != null) && (!skipNotFound || ((item.getLink() != null) && !item.getLink().isNotFound()))) {
+			items.add(item);
+		}
+	}
+
+	/**
+	 * Counts the levels from a bean up to a stop path by path arithmetic, a
+	 * document counting as one level with its handle.
+	 *
+	 * @return number of levels, or {@link Integer#MAX_VALUE} if unknown
+	 */
+	private static int countLevels(final HippoBean bean, final String stopPath) {
+		final String path = bean.getPath();
+		if (stopPath == null || path == null || !path.startsWith(stopPath + "/")) {
+			return Integer.MAX_VALUE;
+		}
+
+		int levels = 1;
+		for (int i = stopPath.length() + 1; i < path.length(); i++) {
+			if (path.charAt(i) == '/') {
+				levels++;
+			}
+		}
+		return (bean instanceof HippoDocument) ? levels - 1 : levels;
+	}
+
+	/**
+	 * Creates the item that stands for the levels left out of the breadcrumb
+	 * because of the configured maximum depth. By default, it has title
+	 * {@value #ELLIPSIS_TITLE} and the link of the highest level left out, so
+	 * it is rendered like any other item.
+	 *
+	 * @param request   HST request (not used in default implementation)
+	 * @param levelItem item of the highest level left out, null if none could
+	 *                  be created
+	 * @return ellipsis item, or null to leave it out
+	 */
+	@SuppressWarnings("unused")
+	protected BreadcrumbItem createEllipsisItem(final HstRequest request, final BreadcrumbItem levelItem) {
+		return (levelItem == null) ? null : new BreadcrumbItem(levelItem.getLink(), ELLIPSIS_TITLE);
+	}
+
+	/**
+	 * Returns the index to use for walking up the content tree. By default, the
+	 * shared index is used if caching is enabled and the request is cacheable.
+	 *
+	 * @param request HST request
+	 * @return ancestor index, or null if parent beans are to be loaded from the
+	 *         repository always
+	 */
+	protected AncestorIndex getAncestorIndex(final HstRequest request) {
+		return (cacheEnabled && isCacheable(request)) ? AncestorIndex.getInstance() : null;
+	}
+
+	/**
+	 * Returns the memo to use for links to content. By default, the shared memo
+	 * is used if caching is enabled and the request is cacheable.
+	 *
+	 * @param request HST request
+	 * @return link memo, or null if links are to be created always
+	 */
+	protected LinkMemo getLinkMemo(final HstRequest request) {
+		return (cacheEnabled && isCacheable(request)) ? LinkMemo.getInstance() : null;
+	}
+
+	private HippoBean getBeanByIdentifier(final HstRequest request, final String identifier) {
+		BreadcrumbMetrics.getInstance().recordParentBeanLoaded();
+		try {
+			return (HippoBean) request.getRequestContext().getObjectBeanManager().getObjectByUuid(identifier);
+		} catch (ObjectBeanManagerException e) {
+			log.warn("{} cannot load bean with identifier {}: {}", this.getClass().getName(), identifier,
+					e.toString());
+			return null;
 		}
 	}
 
 	/**
 	 * Post processes the breadcrumb items to check if the contained link points to
-	 * the pagenotfound hst:page. If so, it sets the notFound flag in that link
+	 * the pagenotfound hst:page. If so, it sets the notFound flag in that link.
+	 * <p>
+	 * The check is done by the shared {@link NotFoundIndex}, so sitemap matching
+	 * happens once per link path and HST model.
 	 *
 	 * @param items   list of breadcrumb items
 	 * @param request HST request
 	 */
 	protected void postProcessItemsForNotFoundLinks(final HstRequest request, final List<BreadcrumbItem> items) {
+		final NotFoundIndex notFoundIndex = NotFoundIndex.getInstance();
 		for (BreadcrumbItem item : items) {
-			HstSiteMapItem hstSiteMapItem = item.getLink().getHstSiteMapItem();
-			if (hstSiteMapItem != null) {
-				if (!Strings.isNullOrEmpty(hstSiteMapItem.getComponentConfigurationId()) && hstSiteMapItem.getComponentConfigurationId().endsWith(HST_PAGES_PAGENOTFOUND_ID)) {
-					item.getLink().setNotFound(true);
-				}
-				if (!hstSiteMapItem.getComponentConfigurationIdMappings().isEmpty()) {
-					ResolvedSiteMapItem resolvedSiteMapItem = item.getLink().getMount().getHstSiteMapMatcher()
-							.match(item.getLink().getPath(), request.getRequestContext().getResolvedMount());
-					if (resolvedSiteMapItem != null && HST_PAGES_PAGENOTFOUND_ID
-							.equals(resolvedSiteMapItem.getHstComponentConfiguration().getName())) {
-						item.getLink().setNotFound(true);
-					}
-				}
+			final HstLink link = item.getLink();
+			if (link != null && notFoundIndex.isNotFound(request.getRequestContext(), link)) {
+				link.setNotFound(true);
 			}
 		}
 	}
@@ -533,11 +1010,53 @@ public class BreadcrumbProvider {
 	protected BreadcrumbItem getBreadcrumbItem(final HstRequest request, final HippoBean bean,
 			final boolean navigationStateful) {
 		final HstRequestContext context = request.getRequestContext();
+		final LinkMemo linkMemo = getLinkMemo(request);
+		if (linkMemo != null) {
+			final HstLink link = linkMemo.getLink(context, bean.getIdentifier(), bean.getPath(), navigationStateful,
+					() -> createLink(context, bean, navigationStateful));
+			return new BreadcrumbItem(link, bean.getDisplayName());
+		}
+		return new BreadcrumbItem(createLink(context, bean, navigationStateful), bean.getDisplayName());
+	}
+
+	private HstLink createLink(final HstRequestContext context, final HippoBean bean,
+			final boolean navigationStateful) {
+		BreadcrumbMetrics.getInstance().recordLinkCreated();
 		if (navigationStateful) {
-			return new BreadcrumbItem(context.getHstLinkCreator().create(bean.getNode(), context,
-					null/* preferredItem */, true/* fallback */, navigationStateful), bean.getDisplayName());
+			return context.getHstLinkCreator().create(bean.getNode(), context, null/* preferredItem */,
+					true/* fallback */, navigationStateful);
 		} else {
-			return new BreadcrumbItem(context.getHstLinkCreator().create(bean, context), bean.getDisplayName());
+			return context.getHstLinkCreator().create(bean, context);
+		}
+	}
+
+	/**
+	 * Creates a breadcrumb item from an ancestor index entry, without loading
+	 * the bean. This is the counterpart of
+	 * {@link #getBreadcrumbItem(HstRequest, HippoBean)} for levels known in the
+	 * index; a subclass customizing that method should customize this one the
+	 * same way, see {@link #isAncestorEntryItemsEnabled()}.
+	 *
+	 * @param request HST request
+	 * @param entry   index entry from which to create link and name
+	 * @return breadcrumb item, or null if no link could be created
+	 */
+	protected BreadcrumbItem getBreadcrumbItem(final HstRequest request, final AncestorEntry entry) {
+		final HstRequestContext context = request.getRequestContext();
+		final LinkMemo linkMemo = getLinkMemo(request);
+		final HstLink link = (linkMemo == null) ? createLink(context, entry)
+				: linkMemo.getLink(context, entry.getIdentifier(), entry.getPath(), false,
+						() -> createLink(context, entry));
+		return (link == null) ? null : new BreadcrumbItem(link, entry.getDisplayName());
+	}
+
+	private HstLink createLink(final HstRequestContext context, final AncestorEntry entry) {
+		BreadcrumbMetrics.getInstance().recordLinkCreated();
+		try {
+			return context.getHstLinkCreator().create(entry.getIdentifier(), context.getSession(), context);
+		} catch (RepositoryException e) {
+			log.warn("{} cannot create link for {}: {}", this.getClass().getName(), entry.getPath(), e.toString());
+			return null;
 		}
 	}
 }
@@ -0,0 +1,355 @@
+/*
+ * Copyright 2026 Bloomreach
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onehippo.forge.breadcrumb.metrics;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counters and timers of breadcrumb generation, shared by all breadcrumb providers of a site webapp.
+ * <p>
+ * The metrics are published as the MBean {@value #OBJECT_NAME} and, if Micrometer is on the classpath, as meters
+ * named <code>breadcrumb.*</code> in its global registry, while a {@link BreadcrumbMetricsPublisher} is initialized.
+ * Recording is lock free, so it is always on.
+ */
+public final class BreadcrumbMetrics implements BreadcrumbMetricsMBean {
+
+	public static final String OBJECT_NAME = "org.onehippo.forge.breadcrumb:type=BreadcrumbMetrics";
+
+	/**
+	 * Timed phases of breadcrumb generation.
+	 */
+	public enum Phase {
+		/** finding the deepest expanded menu item */
+		MENU_RESOLUTION,
+		/** creating the menu based items */
+		MENU_ITEMS,
+		/** creating the content based items */
+		CONTENT_ITEMS,
+		/** checking the links for the not found page */
+		NOT_FOUND_POST_PROCESSING
+	}
+
+	/**
+	 * Caches of which hits and misses are counted.
+	 */
+	public enum CacheType {
+		BREADCRUMB_CACHE,
+		ANCESTOR_INDEX,
+		LINK_MEMO,
+		FRAGMENT_CACHE,
+		OFF_HEAP_STORE
+	}
+
+	private static final BreadcrumbMetrics INSTANCE = new BreadcrumbMetrics();
+
+	private final Map<Phase, Timer> timers = new EnumMap<>(Phase.class);
+	private final Map<CacheType, LongAdder> hits = new EnumMap<>(CacheType.class);
+	private final Map<CacheType, LongAdder> misses = new EnumMap<>(CacheType.class);
+	private final LongAdder breadcrumbsCreated = new LongAdder();
+	private final LongAdder parentBeansLoaded = new LongAdder();
+	private final LongAdder linksCreated = new LongAdder();
+	private final LongAdder itemsProduced = new LongAdder();
+	private final LongAdder staleBreadcrumbsServed = new LongAdder();
+
+	BreadcrumbMetrics() {
+		for (Phase phase : Phase.values()) {
+			timers.put(phase, new Timer());
+		}
+		for (CacheType type : CacheType.values()) {
+			hits.put(type, new LongAdder());
+			misses.put(type, new LongAdder());
+		}
+	}
+
+	/**
+	 * Returns the metrics shared within the site webapp.
+	 *
+	 * @return shared metrics
+	 */
+	public static BreadcrumbMetrics getInstance() {
+		return INSTANCE;
+	}
+
+	/**
+	 * Records the duration of a phase.
+	 *
+	 * @param phase      phase that ended now
+	 * @param startNanos {@link System#nanoTime()} at the start of the phase
+	 */
+	public void recordPhase(final Phase phase, final long startNanos) {
+		timers.get(phase).record(System.nanoTime() - startNanos);
+	}
+
+	/**
+	 * Records a generated breadcrumb.
+	 *
+	 * @param itemCount number of items of the breadcrumb
+	 */
+	public void recordBreadcrumb(final int itemCount) {
+		breadcrumbsCreated.increment();
+		itemsProduced.add(itemCount);
+	}
+
+	public void recordParentBeanLoaded() {
+		parentBeansLoaded.increment();
+	}
+
+	public void recordLinkCreated() {
+		linksCreated.increment();
+	}
+
+	public void recordStaleBreadcrumbServed() {
+		staleBreadcrumbsServed.increment();
+	}
+
+	public void recordHit(final CacheType type) {
+		hits.get(type).increment();
+	}
+
+	public void recordMiss(final CacheType type) {
+		misses.get(type).increment();
+	}
+
+	public long getCount(final Phase phase) {
+		return timers.get(phase).count.sum();
+	}
+
+	public long getTotalTime(final Phase phase, final TimeUnit unit) {
+		return unit.convert(timers.get(phase).totalNanos.sum(), TimeUnit.NANOSECONDS);
+	}
+
+	public long getMaxTime(final Phase phase, final TimeUnit unit) {
+		return unit.convert(timers.get(phase).maxNanos.get(), TimeUnit.NANOSECONDS);
+	}
+
+	public long getHits(final CacheType type) {
+		return hits.get(type).sum();
+	}
+
+	public long getMisses(final CacheType type) {
+		return misses.get(type).sum();
+	}
+
+	public double getHitRatio(final CacheType type) {
+		final long hitCount = getHits(type);
+		return ratio(hitCount, hitCount + getMisses(type));
+	}
+
+	@Override
+	public long getBreadcrumbsCreated() {
+		return breadcrumbsCreated.sum();
+	}
+
+	@Override
+	public long getMenuResolutionCount() {
+		return getCount(Phase.MENU_RESOLUTION);
+	}
+
+	@Override
+	public double getMenuResolutionAverageMicros() {
+		return getAverageMicros(Phase.MENU_RESOLUTION);
+	}
+
+	@Override
+	public double getMenuResolutionMaxMicros() {
+		return getMaxMicros(Phase.MENU_RESOLUTION);
+	}
+
+	@Override
+	public long getMenuItemsCount() {
+		return getCount(Phase.MENU_ITEMS);
+	}
+
+	@Override
+	public double getMenuItemsAverageMicros() {
+		return getAverageMicros(Phase.MENU_ITEMS);
+	}
+
+	@Override
+	public double getMenuItemsMaxMicros() {
+		return getMaxMicros(Phase.MENU_ITEMS);
+	}
+
+	@Override
+	public long getContentItemsCount() {
+		return getCount(Phase.CONTENT_ITEMS);
+	}
+
+	@Override
+	public double getContentItemsAverageMicros() {
+		return getAverageMicros(Phase.CONTENT_ITEMS);
+	}
+
+	@Override
+	public double getContentItemsMaxMicros() {
+		return getMaxMicros(Phase.CONTENT_ITEMS);
+	}
+
+	@Override
+	public long getNotFoundPostProcessingCount() {
+		return getCount(Phase.NOT_FOUND_POST_PROCESSING);
+	}
+
+	@Override
+	public double getNotFoundPostProcessingAverageMicros() {
+		return getAverageMicros(Phase.NOT_FOUND_POST_PROCESSING);
+	}
+
+	@Override
+	public double getNotFoundPostProcessingMaxMicros() {
+		return getMaxMicros(Phase.NOT_FOUND_POST_PROCESSING);
+	}
+
+	@Override
+	public long getParentBeansLoaded() {
+		return parentBeansLoaded.sum();
+	}
+
+	@Override
+	public double getParentBeansLoadedPerBreadcrumb() {
+		return ratio(getParentBeansLoaded(), getBreadcrumbsCreated());
+	}
+
+	@Override
+	public long getLinksCreated() {
+		return linksCreated.sum();
+	}
+
+	@Override
+	public double getLinksCreatedPerBreadcrumb() {
+		return ratio(getLinksCreated(), getBreadcrumbsCreated());
+	}
+
+	@Override
+	public long getItemsProduced() {
+		return itemsProduced.sum();
+	}
+
+	@Override
+	public double getItemsProducedPerBreadcrumb() {
+		return ratio(getItemsProduced(), getBreadcrumbsCreated());
+	}
+
+	@Override
+	public long getStaleBreadcrumbsServed() {
+		return staleBreadcrumbsServed.sum();
+	}
+
+	@Override
+	public long getBreadcrumbCacheHits() {
+		return getHits(CacheType.BREADCRUMB_CACHE);
+	}
+
+	@Override
+	public long getBreadcrumbCacheMisses() {
+		return getMisses(CacheType.BREADCRUMB_CACHE);
+	}
+
+	@Override
+	public double getBreadcrumbCacheHitRatio() {
+		return getHitRatio(CacheType.BREADCRUMB_CACHE);
+	}
+
+	@Override
+	public long getAncestorIndexHits() {
+		return getHits(CacheType.ANCESTOR_INDEX);
+	}
+
+	@Override
+	public long getAncestorIndexMisses() {
+		return getMisses(CacheType.ANCESTOR_INDEX);
+	}
+
+	@Override
+	public double getAncestorIndexHitRatio() {
+		return getHitRatio(CacheType.ANCESTOR_INDEX);
+	}
+
+	@Override
+	public long getLinkMemoHits() {
+		return getHits(CacheType.LINK_MEMO);
+	}
+
+	@Override
+	public long getLinkMemoMisses() {
+		return getMisses(CacheType.LINK_MEMO);
+	}
+
+	@Override
+	public double getLinkMemoHitRatio() {
+		return getHitRatio(CacheType.LINK_MEMO);
+	}
+
+	@Override
+	public long getFragmentCacheHits() {
+		return getHits(CacheType.FRAGMENT_CACHE);
+	}
+
+	@Override
+	public long getFragmentCacheMisses() {
+		return getMisses(CacheType.FRAGMENT_CACHE);
+	}
+
+	@Override
+	public double getFragmentCacheHitRatio() {
+		return getHitRatio(CacheType.FRAGMENT_CACHE);
+	}
+
+	@Override
+	public long getOffHeapStoreHits() {
+		return getHits(CacheType.OFF_HEAP_STORE);
+	}
+
+	@Override
+	public long getOffHeapStoreMisses() {
+		return getMisses(CacheType.OFF_HEAP_STORE);
+	}
+
+	@Override
+	public double getOffHeapStoreHitRatio() {
+		return getHitRatio(CacheType.OFF_HEAP_STORE);
+	}
+
+	private double getAverageMicros(final Phase phase) {
+		final Timer timer = timers.get(phase);
+		return ratio(timer.totalNanos.sum(), timer.count.sum()) / 1000d;
+	}
+
+	private double getMaxMicros(final Phase phase) {
+		return timers.get(phase).maxNanos.get() / 1000d;
+	}
+
+	private static double ratio(final long dividend, final long divisor) {
+		return (divisor == 0) ? 0d : (double) dividend / divisor;
+	}
+
+	private static final class Timer {
+
+		private final LongAdder count = new LongAdder();
+		private final LongAdder totalNanos = new LongAdder();
+		private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0L);
+
+		private void record(final long nanos) {
+			count.increment();
+			totalNanos.add(nanos);
+			maxNanos.accumulate(nanos);
+		}
+	}
+}
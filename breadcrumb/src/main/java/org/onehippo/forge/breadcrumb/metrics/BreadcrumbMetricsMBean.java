@@ -0,0 +1,93 @@
+/*
+ * Copyright 2026 Bloomreach
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onehippo.forge.breadcrumb.metrics;
+
+/**
+ * JMX view of the {@link BreadcrumbMetrics}. Durations are in microseconds, counts are totals since start. There is no
+ * reset, as the counters are published as monotonic Micrometer counters too.
+ */
+public interface BreadcrumbMetricsMBean {
+
+	long getBreadcrumbsCreated();
+
+	long getMenuResolutionCount();
+
+	double getMenuResolutionAverageMicros();
+
+	double getMenuResolutionMaxMicros();
+
+	long getMenuItemsCount();
+
+	double getMenuItemsAverageMicros();
+
+	double getMenuItemsMaxMicros();
+
+	long getContentItemsCount();
+
+	double getContentItemsAverageMicros();
+
+	double getContentItemsMaxMicros();
+
+	long getNotFoundPostProcessingCount();
+
+	double getNotFoundPostProcessingAverageMicros();
+
+	double getNotFoundPostProcessingMaxMicros();
+
+	long getParentBeansLoaded();
+
+	double getParentBeansLoadedPerBreadcrumb();
+
+	long getLinksCreated();
+
+	double getLinksCreatedPerBreadcrumb();
+
+	long getItemsProduced();
+
+	double getItemsProducedPerBreadcrumb();
+
+	long getStaleBreadcrumbsServed();
+
+	long getBreadcrumbCacheHits();
+
+	long getBreadcrumbCacheMisses();
+
+	double getBreadcrumbCacheHitRatio();
+
+	long getAncestorIndexHits();
+
+	long getAncestorIndexMisses();
+
+	double getAncestorIndexHitRatio();
+
+	long getLinkMemoHits();
+
+	long getLinkMemoMisses();
+
+	double getLinkMemoHitRatio();
+
+	long getFragmentCacheHits();
+
+	long getFragmentCacheMisses();
+
+	double getFragmentCacheHitRatio();
+
+	long getOffHeapStoreHits();
+
+	long getOffHeapStoreMisses();
+
+	double getOffHeapStoreHitRatio();
+}
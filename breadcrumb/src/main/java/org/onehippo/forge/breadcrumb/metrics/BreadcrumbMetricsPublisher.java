@@ -0,0 +1,113 @@
+/*
+ * Copyright 2026 Bloomreach
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onehippo.forge.breadcrumb.metrics;
+
+import java.lang.management.ManagementFactory;
+
+import javax.management.InstanceAlreadyExistsException;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Publishes the {@link BreadcrumbMetrics} of the site webapp from its start to its stop: as the MBean
+ * {@value BreadcrumbMetrics#OBJECT_NAME} and, if a Micrometer registry is set by
+ * {@link #setMeterRegistry(Object)}, as meters named <code>breadcrumb.*</code> in that registry. Both outlive the
+ * webapp otherwise, keeping its class loader reachable after a redeploy.
+ * <p>
+ * To be declared as Spring bean in the site webapp, with {@link #initialize()} as init method and {@link #destroy()}
+ * as destroy method.
+ */
+public class BreadcrumbMetricsPublisher {
+
+	private static final Logger log = LoggerFactory.getLogger(BreadcrumbMetricsPublisher.class);
+
+	private static final String MICROMETER_CLASS_NAME = "io.micrometer.core.instrument.MeterRegistry";
+
+	private Object meterRegistry;
+	private ObjectName objectName;
+	private Runnable micrometerUnbinder;
+
+	/**
+	 * Sets the Micrometer registry of the application to register the meters in. Typed as Object, so this class
+	 * loads without Micrometer on the classpath.
+	 *
+	 * @param meterRegistry an <code>io.micrometer.core.instrument.MeterRegistry</code>, null to publish no meters
+	 */
+	public void setMeterRegistry(final Object meterRegistry) {
+		this.meterRegistry = meterRegistry;
+	}
+
+	/**
+	 * Registers the MBean and binds the Micrometer meters.
+	 */
+	public void initialize() {
+		final BreadcrumbMetrics metrics = BreadcrumbMetrics.getInstance();
+		try {
+			final MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+			ObjectName name = new ObjectName(BreadcrumbMetrics.OBJECT_NAME);
+			try {
+				server.registerMBean(metrics, name);
+			} catch (InstanceAlreadyExistsException e) {
+				// another site webapp in the same JVM registered first
+				name = new ObjectName(BreadcrumbMetrics.OBJECT_NAME + ",instance="
+						+ Integer.toHexString(System.identityHashCode(metrics)));
+				server.registerMBean(metrics, name);
+			}
+			objectName = name;
+		} catch (JMException | SecurityException e) {
+			log.warn("Cannot register breadcrumb metrics MBean: {}", e.toString());
+		}
+
+		if (meterRegistry != null && isClassPresent(MICROMETER_CLASS_NAME)) {
+			try {
+				micrometerUnbinder = MicrometerBinder.bind(metrics, meterRegistry);
+			} catch (RuntimeException | LinkageError e) {
+				log.warn("Cannot bind breadcrumb metrics to Micrometer: {}", e.toString());
+			}
+		}
+	}
+
+	/**
+	 * Unregisters the MBean and removes the Micrometer meters.
+	 */
+	public void destroy() {
+		if (objectName != null) {
+			try {
+				ManagementFactory.getPlatformMBeanServer().unregisterMBean(objectName);
+			} catch (JMException | SecurityException e) {
+				log.warn("Cannot unregister breadcrumb metrics MBean: {}", e.toString());
+			}
+			objectName = null;
+		}
+		if (micrometerUnbinder != null) {
+			micrometerUnbinder.run();
+			micrometerUnbinder = null;
+		}
+	}
+
+	private static boolean isClassPresent(final String className) {
+		try {
+			Class.forName(className, false, BreadcrumbMetricsPublisher.class.getClassLoader());
+			return true;
+		} catch (ClassNotFoundException | LinkageError e) {
+			return false;
+		}
+	}
+}
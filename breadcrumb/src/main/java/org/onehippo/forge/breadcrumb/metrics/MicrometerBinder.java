@@ -0,0 +1,81 @@
+/*
+ * Copyright 2026 Bloomreach
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onehippo.forge.breadcrumb.metrics;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Binds the {@link BreadcrumbMetrics} to a Micrometer registry, for the {@link BreadcrumbMetricsPublisher}. Only
+ * loaded if Micrometer is present, so the publisher itself does not refer to Micrometer types.
+ */
+final class MicrometerBinder {
+
+	private MicrometerBinder() {
+	}
+
+	/**
+	 * Registers the meters of the metrics.
+	 *
+	 * @param metrics       metrics to bind
+	 * @param meterRegistry registry to register the meters in, a {@link MeterRegistry}
+	 * @return action removing the registered meters again
+	 */
+	static Runnable bind(final BreadcrumbMetrics metrics, final Object meterRegistry) {
+		if (!(meterRegistry instanceof MeterRegistry)) {
+			throw new IllegalArgumentException("Not a Micrometer MeterRegistry: " + meterRegistry);
+		}
+		final MeterRegistry registry = (MeterRegistry) meterRegistry;
+		final List<Meter> meters = new ArrayList<>();
+
+		for (BreadcrumbMetrics.Phase phase : BreadcrumbMetrics.Phase.values()) {
+			meters.add(FunctionTimer.builder("breadcrumb.phase", metrics, m -> m.getCount(phase),
+					m -> m.getTotalTime(phase, TimeUnit.NANOSECONDS), TimeUnit.NANOSECONDS)
+					.tag("phase", phase.name().toLowerCase(Locale.ROOT))
+					.description("Duration of a breadcrumb generation phase")
+					.register(registry));
+		}
+		for (BreadcrumbMetrics.CacheType type : BreadcrumbMetrics.CacheType.values()) {
+			final String cache = type.name().toLowerCase(Locale.ROOT);
+			meters.add(FunctionCounter.builder("breadcrumb.cache.hits", metrics, m -> m.getHits(type))
+					.tag("cache", cache).register(registry));
+			meters.add(FunctionCounter.builder("breadcrumb.cache.misses", metrics, m -> m.getMisses(type))
+					.tag("cache", cache).register(registry));
+		}
+
+		meters.add(FunctionCounter.builder("breadcrumb.created", metrics, BreadcrumbMetrics::getBreadcrumbsCreated)
+				.description("Generated breadcrumbs").register(registry));
+		meters.add(FunctionCounter.builder("breadcrumb.parent.beans.loaded", metrics,
+				BreadcrumbMetrics::getParentBeansLoaded)
+				.description("Parent beans loaded from the repository").register(registry));
+		meters.add(FunctionCounter.builder("breadcrumb.links.created", metrics, BreadcrumbMetrics::getLinksCreated)
+				.description("Links created by the link creator").register(registry));
+		meters.add(FunctionCounter.builder("breadcrumb.items.produced", metrics, BreadcrumbMetrics::getItemsProduced)
+				.description("Items of generated breadcrumbs").register(registry));
+		meters.add(FunctionCounter.builder("breadcrumb.stale.served", metrics,
+				BreadcrumbMetrics::getStaleBreadcrumbsServed)
+				.description("Invalidated breadcrumbs served while being revalidated").register(registry));
+
+		return () -> meters.forEach(registry::remove);
+	}
+}
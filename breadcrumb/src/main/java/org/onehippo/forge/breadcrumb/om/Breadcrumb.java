@@ -21,9 +21,9 @@ import org.onehippo.forge.breadcrumb.components.BreadcrumbProvider;
 
 public class Breadcrumb {
 
-	private List<BreadcrumbItem> items;
-	private String separator;
-	private String linkNotFoundMode;
+	private final List<BreadcrumbItem> items;
+	private final String separator;
+	private final String linkNotFoundMode;
 
 	public Breadcrumb(final List<BreadcrumbItem> items, final String separator,
 			final BreadcrumbProvider.LinkNotFoundMode linkNotFoundMode) {
@@ -33,6 +33,25 @@ public class Breadcrumb {
 		this.linkNotFoundMode = linkNotFoundMode == null ? null : linkNotFoundMode.name().toLowerCase();
 	}
 
+	private Breadcrumb(final List<BreadcrumbItem> items, final String separator, final String linkNotFoundMode) {
+		this.items = items;
+		this.separator = separator;
+		this.linkNotFoundMode = linkNotFoundMode;
+	}
+
+	/**
+	 * Creates an immutable breadcrumb, e.g. from {@link BreadcrumbNode}s.
+	 *
+	 * @param items            unmodifiable list of items
+	 * @param separator        separator
+	 * @param linkNotFoundMode mode for links to the not found page as returned by {@link #getLinkNotFoundMode()}
+	 * @return immutable breadcrumb
+	 */
+	static Breadcrumb immutableOf(final List<BreadcrumbItem> items, final String separator,
+			final String linkNotFoundMode) {
+		return new Breadcrumb(items, separator, linkNotFoundMode);
+	}
+
 	/**
 	 * Returns the list of breadcrumb items.
 	 *
@@ -0,0 +1,112 @@
+/*
+ * Copyright 2026 Bloomreach
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onehippo.forge.breadcrumb.om;
+
+import java.util.List;
+
+import org.hippoecm.hst.core.linking.HstLink;
+import org.hippoecm.hst.core.request.HstRequestContext;
+
+/**
+ * Renders a {@link Breadcrumb} to an HTML fragment, equal for every visitor of a URL, so it can be cached.
+ * <p>
+ * The markup is that of the breadcrumb template of the demo: every item is an anchor with its title as escaped text,
+ * followed by the separator and a non-breaking space unless it is the last item. Items with a link get a pointer
+ * cursor and, except for the last item, their URL. Items with a not found link are left out in mode 'hide' and
+ * rendered without link in mode 'unlink'.
+ * <p>
+ * Like in the template, the separator is HTML: it is written as is, so it may contain markup or character
+ * references, and must not be taken from untrusted input.
+ */
+public final class BreadcrumbHtmlRenderer {
+
+	private static final String HIDE = "hide";
+	private static final String UNLINK = "unlink";
+
+	private BreadcrumbHtmlRenderer() {
+	}
+
+	/**
+	 * Renders a breadcrumb.
+	 *
+	 * @param breadcrumb     breadcrumb to render
+	 * @param requestContext HST request context, for creating the URLs
+	 * @return HTML fragment
+	 */
+	public static String render(final Breadcrumb breadcrumb, final HstRequestContext requestContext) {
+		final List<BreadcrumbItem> items = breadcrumb.getItems();
+		final int size = (items == null) ? 0 : items.size();
+		final String mode = breadcrumb.getLinkNotFoundMode();
+		final StringBuilder html = new StringBuilder(size * 64);
+
+		for (int i = 0; i < size; i++) {
+			final BreadcrumbItem item = items.get(i);
+			final HstLink link = item.getLink();
+			final boolean notFound = (link != null) && link.isNotFound();
+			if (notFound && HIDE.equals(mode)) {
+				continue;
+			}
+
+			final boolean last = (i == size - 1);
+			if (link == null || (notFound && UNLINK.equals(mode))) {
+				html.append("<a>");
+			} else {
+				html.append("<a ");
+				if (!last) {
+					html.append("href=\"");
+					appendEscaped(html, link.toUrlForm(requestContext, false));
+					html.append('"');
+				}
+				html.append(" style=\"cursor: pointer\">");
+			}
+			appendEscaped(html, item.getTitle());
+			html.append("</a>");
+			if (!last) {
+				html.append(' ').append(breadcrumb.getSeparator()).append("&nbsp;");
+			}
+		}
+		return html.toString();
+	}
+
+	static void appendEscaped(final StringBuilder html, final String text) {
+		if (text == null) {
+			return;
+		}
+
+		for (int i = 0; i < text.length(); i++) {
+			final char c = text.charAt(i);
+			switch (c) {
+				case '&':
+					html.append("&amp;");
+					break;
+				case '<':
+					html.append("&lt;");
+					break;
+				case '>':
+					html.append("&gt;");
+					break;
+				case '"':
+					html.append("&quot;");
+					break;
+				case '\'':
+					html.append("&#39;");
+					break;
+				default:
+					html.append(c);
+			}
+		}
+	}
+}
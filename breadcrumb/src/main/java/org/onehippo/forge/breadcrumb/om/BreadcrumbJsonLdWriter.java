@@ -0,0 +1,145 @@
+/*
+ * Copyright 2026 Bloomreach
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onehippo.forge.breadcrumb.om;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import org.hippoecm.hst.core.linking.HstLink;
+import org.hippoecm.hst.core.request.HstRequestContext;
+
+/**
+ * Writes a {@link Breadcrumb} as a schema.org <code>BreadcrumbList</code> in JSON-LD, streaming to a writer without
+ * intermediate strings.
+ * <p>
+ * Items get fully qualified URLs from their links. Items without a link, or with a link to the not found page, are
+ * listed by name only. Besides JSON escaping, <code>&lt;</code>, <code>&gt;</code>, <code>&amp;</code> and the
+ * line and paragraph separators are escaped, so the output can be embedded in a
+ * <code>&lt;script type="application/ld+json"&gt;</code> element as is.
+ */
+public final class BreadcrumbJsonLdWriter {
+
+	private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+	private BreadcrumbJsonLdWriter() {
+	}
+
+	/**
+	 * Writes a breadcrumb as JSON-LD to an output stream, in UTF-8. The stream is flushed, not closed.
+	 *
+	 * @param breadcrumb     breadcrumb to write
+	 * @param requestContext HST request context, for creating the URLs
+	 * @param out            stream to write to
+	 * @throws IOException if writing fails
+	 */
+	public static void write(final Breadcrumb breadcrumb, final HstRequestContext requestContext,
+			final OutputStream out) throws IOException {
+		final Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+		write(breadcrumb, requestContext, writer);
+		writer.flush();
+	}
+
+	/**
+	 * Writes a breadcrumb as JSON-LD to a writer. The writer is neither flushed nor closed.
+	 *
+	 * @param breadcrumb     breadcrumb to write
+	 * @param requestContext HST request context, for creating the URLs
+	 * @param writer         writer to write to
+	 * @throws IOException if writing fails
+	 */
+	public static void write(final Breadcrumb breadcrumb, final HstRequestContext requestContext,
+			final Writer writer) throws IOException {
+		writer.write("{\"@context\":\"https://schema.org\",\"@type\":\"BreadcrumbList\",\"itemListElement\":[");
+
+		final List<BreadcrumbItem> items = breadcrumb.getItems();
+		final int size = (items == null) ? 0 : items.size();
+		for (int i = 0; i < size; i++) {
+			final BreadcrumbItem item = items.get(i);
+			if (i > 0) {
+				writer.write(',');
+			}
+			writer.write("{\"@type\":\"ListItem\",\"position\":");
+			writer.write(Integer.toString(i + 1));
+			writer.write(",\"name\":");
+			writeString(writer, item.getTitle());
+
+			final HstLink link = item.getLink();
+			if (link != null && !link.isNotFound()) {
+				final String url = link.toUrlForm(requestContext, true);
+				if (url != null) {
+					writer.write(",\"item\":");
+					writeString(writer, url);
+				}
+			}
+			writer.write('}');
+		}
+		writer.write("]}");
+	}
+
+	/**
+	 * Writes a string as a JSON string literal, escaping runs of characters without copying them.
+	 */
+	static void writeString(final Writer writer, final String value) throws IOException {
+		if (value == null) {
+			writer.write("null");
+			return;
+		}
+
+		writer.write('"');
+		int start = 0;
+		final int length = value.length();
+		for (int i = 0; i < length; i++) {
+			final char c = value.charAt(i);
+			if (c >= 0x20 && c != '"' && c != '\\' && c != '<' && c != '>' && c != '&' && c != '\u2028'
+					&& c != '\u2029') {
+				continue;
+			}
+
+			writer.write(value, start, i - start);
+			start = i + 1;
+			switch (c) {
+				case '"':
+					writer.write("\\\"");
+					break;
+				case '\\':
+					writer.write("\\\\");
+					break;
+				case '\n':
+					writer.write("\\n");
+					break;
+				case '\r':
+					writer.write("\\r");
+					break;
+				case '\t':
+					writer.write("\\t");
+					break;
+				default:
+					writer.write("\\u");
+					writer.write(HEX[(c >> 12) & 0xf]);
+					writer.write(HEX[(c >> 8) & 0xf]);
+					writer.write(HEX[(c >> 4) & 0xf]);
+					writer.write(HEX[c & 0xf]);
+			}
+		}
+		writer.write(value, start, length - start);
+		writer.write('"');
+	}
+}
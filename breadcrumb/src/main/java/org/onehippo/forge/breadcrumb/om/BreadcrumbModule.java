@@ -0,0 +1,33 @@
+/*
+ * Copyright 2026 Bloomreach
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onehippo.forge.breadcrumb.om;
+
+import com.fasterxml.jackson.databind.module.SimpleModule;
+
+/**
+ * Jackson module serializing breadcrumbs in the compact form of the {@link BreadcrumbSerializer}, e.g. in the Page
+ * Model API. Without it, breadcrumbs are serialized by their bean properties:
+ * <pre>
+ * objectMapper.registerModule(new BreadcrumbModule());
+ * </pre>
+ */
+public class BreadcrumbModule extends SimpleModule {
+
+	public BreadcrumbModule() {
+		super(BreadcrumbModule.class.getSimpleName());
+		addSerializer(Breadcrumb.class, new BreadcrumbSerializer());
+	}
+}
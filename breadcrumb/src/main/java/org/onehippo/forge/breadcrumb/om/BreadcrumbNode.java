@@ -0,0 +1,262 @@
+/*
+ * Copyright 2026 Bloomreach
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onehippo.forge.breadcrumb.om;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+
+import com.google.common.collect.Interner;
+import com.google.common.collect.Interners;
+import org.hippoecm.hst.configuration.hosting.Mount;
+import org.hippoecm.hst.configuration.sitemap.HstSiteMapItem;
+import org.hippoecm.hst.core.linking.HstLink;
+import org.hippoecm.hst.core.linking.HstLinkImpl;
+
+/**
+ * Compact, immutable form of a breadcrumb item that does not refer to the HST model, so it can be retained across
+ * model reloads. A node holds the title and the state of the link of its item, and points to the node of the item
+ * before it; the last node of a breadcrumb represents the whole breadcrumb.
+ * <p>
+ * Nodes are interned, as are their titles, paths, link types and sitemap item ids: an equal item after an equal
+ * prefix is the same instance, so the breadcrumbs of all documents in a folder share the nodes of the folder levels.
+ * <p>
+ * A node turns back into breadcrumb items with links for a mount. The sitemap item of a link is kept by its id, and
+ * looked up again in the sitemap of the mount, so a restored link has the sitemap item, and with that the scheme, of
+ * the original one. If the sitemap of the mount has no item with that id, the restored link has no sitemap item.
+ */
+public final class BreadcrumbNode {
+
+	private static final Interner<BreadcrumbNode> NODES = Interners.newWeakInterner();
+	private static final Interner<String> STRINGS = Interners.newWeakInterner();
+
+	private static final byte NOT_FOUND = 1;
+	private static final byte CONTAINER_RESOURCE = 2;
+
+	private final BreadcrumbNode parent;
+	private final String title;
+	private final String path;
+	private final String type;
+	private final String siteMapItemId;
+	private final byte flags;
+	private final int depth;
+	private final int hashCode;
+
+	private BreadcrumbNode(final BreadcrumbNode parent, final String title, final String path, final String type,
+			final String siteMapItemId, final byte flags) {
+		this.parent = parent;
+		this.title = title;
+		this.path = path;
+		this.type = type;
+		this.siteMapItemId = siteMapItemId;
+		this.flags = flags;
+		this.depth = (parent == null) ? 1 : parent.depth + 1;
+		// parents are interned, so their identity stands for their content
+		int hash = System.identityHashCode(parent);
+		hash = 31 * hash + Objects.hashCode(title);
+		hash = 31 * hash + Objects.hashCode(path);
+		hash = 31 * hash + Objects.hashCode(type);
+		hash = 31 * hash + Objects.hashCode(siteMapItemId);
+		this.hashCode = 31 * hash + flags;
+	}
+
+	/**
+	 * Returns the node of an item.
+	 *
+	 * @param parent            node of the item before it, null for the first item
+	 * @param title             title, may be null
+	 * @param path              path of the link, null for an item without a link
+	 * @param type              type of the link, may be null
+	 * @param siteMapItemId     id of the sitemap item of the link, may be null
+	 * @param notFound          whether the link leads to the not found page
+	 * @param containerResource whether the link is a container resource link
+	 * @return interned node
+	 */
+	public static BreadcrumbNode of(final BreadcrumbNode parent, final String title, final String path,
+			final String type, final String siteMapItemId, final boolean notFound, final boolean containerResource) {
+		final byte flags = (byte) ((notFound ? NOT_FOUND : 0) | (containerResource ? CONTAINER_RESOURCE : 0));
+		return NODES.intern(new BreadcrumbNode(parent, intern(title), intern(path), intern(type),
+				intern(siteMapItemId), flags));
+	}
+
+	/**
+	 * Returns the node of a breadcrumb item.
+	 *
+	 * @param parent node of the item before it, null for the first item
+	 * @param item   breadcrumb item
+	 * @return interned node
+	 */
+	public static BreadcrumbNode of(final BreadcrumbNode parent, final BreadcrumbItem item) {
+		final HstLink link = item.getLink();
+		if (link == null) {
+			return of(parent, item.getTitle(), null, null, null, false, false);
+		}
+		final HstSiteMapItem siteMapItem = link.getHstSiteMapItem();
+		return of(parent, item.getTitle(), link.getPath(), link.getType(),
+				(siteMapItem == null) ? null : siteMapItem.getId(), link.isNotFound(), link.isContainerResource());
+	}
+
+	/**
+	 * Returns the last node of a breadcrumb.
+	 *
+	 * @param breadcrumb breadcrumb
+	 * @return interned node, or null if the breadcrumb has no items
+	 */
+	public static BreadcrumbNode of(final Breadcrumb breadcrumb) {
+		BreadcrumbNode node = null;
+		final List<BreadcrumbItem> items = breadcrumb.getItems();
+		if (items != null) {
+			for (BreadcrumbItem item : items) {
+				node = of(node, item);
+			}
+		}
+		return node;
+	}
+
+	/**
+	 * Creates the breadcrumb items up to and including a node.
+	 *
+	 * @param node  last node, may be null
+	 * @param mount mount to create the links for
+	 * @return new, modifiable list of items, the first item first
+	 */
+	public static List<BreadcrumbItem> toItems(final BreadcrumbNode node, final Mount mount) {
+		if (node == null) {
+			return new ArrayList<>(0);
+		}
+		final BreadcrumbItem[] items = new BreadcrumbItem[node.depth];
+		for (BreadcrumbNode current = node; current != null; current = current.parent) {
+			items[current.depth - 1] = current.toItem(mount);
+		}
+		return new ArrayList<>(Arrays.asList(items));
+	}
+
+	/**
+	 * Creates an immutable breadcrumb of the items up to and including a node.
+	 *
+	 * @param node             last node, may be null
+	 * @param mount            mount to create the links for
+	 * @param separator        separator
+	 * @param linkNotFoundMode mode for links to the not found page as returned by
+	 *                         {@link Breadcrumb#getLinkNotFoundMode()}, may be null
+	 * @return immutable breadcrumb
+	 */
+	public static Breadcrumb toBreadcrumb(final BreadcrumbNode node, final Mount mount, final String separator,
+			final String linkNotFoundMode) {
+		return Breadcrumb.immutableOf(Collections.unmodifiableList(toItems(node, mount)), separator,
+				linkNotFoundMode);
+	}
+
+	/**
+	 * Creates the item of this node.
+	 *
+	 * @param mount mount to create the link for, and to look up the sitemap item of the link in
+	 * @return new item with a new link, or without a link if the node has none
+	 */
+	public BreadcrumbItem toItem(final Mount mount) {
+		if (path == null) {
+			return new BreadcrumbItem(null, title);
+		}
+		final HstSiteMapItem siteMapItem = (siteMapItemId == null || mount == null || mount.getHstSite() == null)
+				? null : mount.getHstSite().getSiteMap().getSiteMapItemById(siteMapItemId);
+		final HstLink link = new HstLinkImpl(path, mount, siteMapItem, isContainerResource());
+		link.setNotFound(isNotFound());
+		return new BreadcrumbItem(link, title);
+	}
+
+	/**
+	 * @return node of the item before this one, null for the first item
+	 */
+	public BreadcrumbNode getParent() {
+		return parent;
+	}
+
+	public String getTitle() {
+		return title;
+	}
+
+	/**
+	 * @return path of the link, null if the item has no link
+	 */
+	public String getPath() {
+		return path;
+	}
+
+	/**
+	 * @return type of the link, may be null
+	 */
+	public String getType() {
+		return type;
+	}
+
+	/**
+	 * @return id of the sitemap item of the link, null if the item has no link or the link no sitemap item
+	 */
+	public String getSiteMapItemId() {
+		return siteMapItemId;
+	}
+
+	public boolean isNotFound() {
+		return (flags & NOT_FOUND) != 0;
+	}
+
+	public boolean isContainerResource() {
+		return (flags & CONTAINER_RESOURCE) != 0;
+	}
+
+	/**
+	 * @return number of items up to and including this node
+	 */
+	public int getDepth() {
+		return depth;
+	}
+
+	private static String intern(final String value) {
+		return (value == null) ? null : STRINGS.intern(value);
+	}
+
+	@Override
+	public boolean equals(final Object o) {
+		if (this == o) {
+			return true;
+		}
+		if (!(o instanceof BreadcrumbNode)) {
+			return false;
+		}
+
+		final BreadcrumbNode that = (BreadcrumbNode) o;
+		return hashCode == that.hashCode
+				&& parent == that.parent
+				&& flags == that.flags
+				&& Objects.equals(title, that.title)
+				&& Objects.equals(path, that.path)
+				&& Objects.equals(type, that.type)
+				&& Objects.equals(siteMapItemId, that.siteMapItemId);
+	}
+
+	@Override
+	public int hashCode() {
+		return hashCode;
+	}
+
+	@Override
+	public String toString() {
+		return super.toString() + "[title=" + title + ", path=" + path + ", type=" + type + ", siteMapItem="
+				+ siteMapItemId + ", notFound=" + isNotFound() + ", depth=" + depth + "]";
+	}
+}
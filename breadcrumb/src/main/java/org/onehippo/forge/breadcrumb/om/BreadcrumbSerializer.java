@@ -0,0 +1,81 @@
+/*
+ * Copyright 2026 Bloomreach
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onehippo.forge.breadcrumb.om;
+
+import java.io.IOException;
+import java.util.List;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import org.hippoecm.hst.container.RequestContextProvider;
+import org.hippoecm.hst.core.linking.HstLink;
+import org.hippoecm.hst.core.request.HstRequestContext;
+
+/**
+ * Compact JSON form of a {@link Breadcrumb}, instead of the bean properties, which include the full {@link HstLink}
+ * object graph:
+ * <pre>
+ * {"separator":"&amp;#187;","linkNotFoundMode":"hide",
+ *  "items":[{"title":"News","href":"/news","type":"internal","notFound":false}]}
+ * </pre>
+ * The href is the URL of the link for the current request, or <code>null</code> for items without a link. As it
+ * changes the JSON of the breadcrumb model, it is used only if registered, see {@link BreadcrumbModule}.
+ */
+public class BreadcrumbSerializer extends StdSerializer<Breadcrumb> {
+
+	public BreadcrumbSerializer() {
+		super(Breadcrumb.class);
+	}
+
+	@Override
+	public void serialize(final Breadcrumb breadcrumb, final JsonGenerator generator,
+			final SerializerProvider provider) throws IOException {
+		final HstRequestContext requestContext = RequestContextProvider.get();
+
+		generator.writeStartObject();
+		generator.writeStringField("separator", breadcrumb.getSeparator());
+		generator.writeStringField("linkNotFoundMode", breadcrumb.getLinkNotFoundMode());
+		generator.writeArrayFieldStart("items");
+		final List<BreadcrumbItem> items = breadcrumb.getItems();
+		if (items != null) {
+			for (BreadcrumbItem item : items) {
+				writeItem(item, requestContext, generator);
+			}
+		}
+		generator.writeEndArray();
+		generator.writeEndObject();
+	}
+
+	private static void writeItem(final BreadcrumbItem item, final HstRequestContext requestContext,
+			final JsonGenerator generator) throws IOException {
+		final HstLink link = item.getLink();
+
+		generator.writeStartObject();
+		generator.writeStringField("title", item.getTitle());
+		if (link == null) {
+			generator.writeNullField("href");
+			generator.writeNullField("type");
+			generator.writeBooleanField("notFound", false);
+		} else {
+			generator.writeStringField("href", (requestContext == null) ? "/" + link.getPath()
+					: link.toUrlForm(requestContext, false));
+			generator.writeStringField("type", link.getType());
+			generator.writeBooleanField("notFound", link.isNotFound());
+		}
+		generator.writeEndObject();
+	}
+}
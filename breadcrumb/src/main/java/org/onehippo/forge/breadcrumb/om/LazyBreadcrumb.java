@@ -0,0 +1,75 @@
+/*
+ * Copyright 2026 Bloomreach
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onehippo.forge.breadcrumb.om;
+
+import java.util.List;
+import java.util.function.Supplier;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import org.onehippo.forge.breadcrumb.components.BreadcrumbProvider;
+
+/**
+ * Breadcrumb of which the items are computed on the first call to {@link #getItems()}, and then remembered.
+ * <p>
+ * The items supplier is called within the request that created the breadcrumb, typically while rendering the
+ * template or serializing the page model, so it may use the request.
+ */
+public class LazyBreadcrumb extends Breadcrumb {
+
+	private final Supplier<List<BreadcrumbItem>> itemsSupplier;
+	private volatile List<BreadcrumbItem> items;
+
+	public LazyBreadcrumb(final Supplier<List<BreadcrumbItem>> itemsSupplier, final String separator,
+			final BreadcrumbProvider.LinkNotFoundMode linkNotFoundMode) {
+		super(null, separator, linkNotFoundMode);
+		this.itemsSupplier = itemsSupplier;
+	}
+
+	/**
+	 * Returns the list of breadcrumb items, computing them on the first call.
+	 *
+	 * @return breadcrumb items
+	 */
+	@Override
+	public List<BreadcrumbItem> getItems() {
+		List<BreadcrumbItem> result = items;
+		if (result == null) {
+			synchronized (this) {
+				result = items;
+				if (result == null) {
+					result = itemsSupplier.get();
+					items = result;
+				}
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Whether the items have been computed.
+	 *
+	 * @return true if {@link #getItems()} has been called
+	 */
+	@JsonIgnore
+	public boolean isComputed() {
+		return items != null;
+	}
+
+	@Override
+	public String toString() {
+		return super.toString() + "[computed=" + isComputed() + "]";
+	}
+}
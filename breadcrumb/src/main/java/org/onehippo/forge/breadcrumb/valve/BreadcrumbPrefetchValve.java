@@ -0,0 +1,195 @@
+/*
+ * Copyright 2026 Bloomreach
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onehippo.forge.breadcrumb.valve;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.jcr.Credentials;
+import javax.jcr.Repository;
+import javax.jcr.RepositoryException;
+import javax.jcr.Session;
+
+import org.hippoecm.hst.container.valves.AbstractOrderableValve;
+import org.hippoecm.hst.core.container.ContainerException;
+import org.hippoecm.hst.core.container.ValveContext;
+import org.hippoecm.hst.core.request.HstRequestContext;
+import org.hippoecm.hst.core.request.ResolvedSiteMapItem;
+import org.hippoecm.hst.site.HstServices;
+import org.onehippo.forge.breadcrumb.cache.AncestorIndex;
+import org.onehippo.forge.breadcrumb.cache.AncestorPrefetcher;
+import org.onehippo.forge.breadcrumb.cache.ContentPaths;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Valve that starts loading the content ancestors of the resolved sitemap item into the {@link AncestorIndex} as
+ * soon as the request enters the pipeline, so that the repository reads overlap with the work of other components.
+ * <p>
+ * The prefetch runs on a small pool of daemon threads, each reading with its own session. Breadcrumb providers that
+ * use the ancestor index wait for the prefetch of their request, at most {@link #setTimeout(long) timeout}
+ * milliseconds after it was started, see {@link #awaitPrefetch(HstRequestContext)}. Only the repository reads are
+ * done ahead: links and items are still created on the request thread, because the HST request context is not
+ * thread-safe.
+ * <p>
+ * Live requests are prefetched only, since the breadcrumb caches are not used for preview requests.
+ */
+public class BreadcrumbPrefetchValve extends AbstractOrderableValve {
+
+	private static final Logger log = LoggerFactory.getLogger(BreadcrumbPrefetchValve.class);
+
+	public static final String PREFETCH_ATTRIBUTE = BreadcrumbPrefetchValve.class.getName() + ".prefetch";
+
+	private static final int QUEUE_CAPACITY = 1000;
+
+	private Repository repository;
+	private Credentials credentials;
+	private int threads = 2;
+	private long timeout = 200L;
+	private ExecutorService executor;
+
+	public void setRepository(final Repository repository) {
+		this.repository = repository;
+	}
+
+	public void setCredentials(final Credentials credentials) {
+		this.credentials = credentials;
+	}
+
+	/**
+	 * @param threads number of prefetch threads, 2 by default
+	 */
+	public void setThreads(final int threads) {
+		this.threads = threads;
+	}
+
+	/**
+	 * @param timeout milliseconds after its start that a prefetch is waited for, 200 by default
+	 */
+	public void setTimeout(final long timeout) {
+		this.timeout = timeout;
+	}
+
+	@Override
+	public void initialize() throws ContainerException {
+		super.initialize();
+
+		final AtomicInteger count = new AtomicInteger();
+		executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+				new ArrayBlockingQueue<>(QUEUE_CAPACITY), runnable -> {
+					final Thread thread = new Thread(runnable, "breadcrumb-prefetch-" + count.incrementAndGet());
+					thread.setDaemon(true);
+					return thread;
+				});
+	}
+
+	@Override
+	public void destroy() {
+		if (executor != null) {
+			executor.shutdownNow();
+		}
+		super.destroy();
+	}
+
+	@Override
+	public void invoke(final ValveContext context) throws ContainerException {
+		final HstRequestContext requestContext = context.getRequestContext();
+		final String path = getContentPath(requestContext);
+
+		if (path != null && executor != null) {
+			final String stopPath = requestContext.getResolvedMount().getMount().getContentPath();
+			try {
+				final CompletableFuture<Void> prefetch = CompletableFuture
+						.runAsync(() -> prefetch(path, stopPath), executor)
+						.completeOnTimeout(null, timeout, TimeUnit.MILLISECONDS);
+				requestContext.setAttribute(PREFETCH_ATTRIBUTE, prefetch);
+			} catch (RejectedExecutionException e) {
+				log.debug("Breadcrumb prefetch queue is full, not prefetching {}", path);
+			}
+		}
+
+		context.invokeNext();
+	}
+
+	/**
+	 * Waits for the prefetch that was started for a request, if any. Returns at the latest when the prefetch
+	 * timeout has passed since its start.
+	 *
+	 * @param requestContext HST request context
+	 */
+	public static void awaitPrefetch(final HstRequestContext requestContext) {
+		final Object prefetch = requestContext.getAttribute(PREFETCH_ATTRIBUTE);
+		if (prefetch instanceof CompletableFuture) {
+			try {
+				((CompletableFuture<?>) prefetch).join();
+			} catch (CompletionException e) {
+				log.debug("Breadcrumb prefetch failed: {}", e.toString());
+			}
+		}
+	}
+
+	/**
+	 * Returns the absolute content path of the resolved sitemap item of a live request.
+	 *
+	 * @param requestContext HST request context
+	 * @return content path, or null if there is nothing to prefetch
+	 */
+	protected String getContentPath(final HstRequestContext requestContext) {
+		final ResolvedSiteMapItem resolvedSiteMapItem = requestContext.getResolvedSiteMapItem();
+		if (resolvedSiteMapItem == null || requestContext.isPreview()
+				|| resolvedSiteMapItem.getRelativeContentPath() == null) {
+			return null;
+		}
+
+		// the same path as the breadcrumb provider walks from and caches by
+		return ContentPaths.of(requestContext.getResolvedMount().getMount(), resolvedSiteMapItem);
+	}
+
+	private void prefetch(final String path, final String stopPath) {
+		Session session = null;
+		try {
+			session = getRepository().login(getCredentials());
+			final int count = AncestorPrefetcher.prefetch(session, path, stopPath, AncestorIndex.getInstance());
+			log.debug("Prefetched {} breadcrumb ancestors of {}", count, path);
+		} catch (RepositoryException e) {
+			log.warn("Cannot prefetch breadcrumb ancestors of {}: {}", path, e.toString());
+		} finally {
+			if (session != null) {
+				session.logout();
+			}
+		}
+	}
+
+	private Repository getRepository() {
+		if (repository == null) {
+			repository = HstServices.getComponentManager().getComponent(Repository.class.getName());
+		}
+		return repository;
+	}
+
+	private Credentials getCredentials() {
+		if (credentials == null) {
+			credentials = HstServices.getComponentManager().getComponent(Credentials.class.getName() + ".default");
+		}
+		return credentials;
+	}
+}
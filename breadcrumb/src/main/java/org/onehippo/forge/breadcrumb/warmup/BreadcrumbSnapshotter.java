@@ -0,0 +1,347 @@
+/*
+ * Copyright 2026 Bloomreach
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onehippo.forge.breadcrumb.warmup;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import javax.jcr.Credentials;
+import javax.jcr.Node;
+import javax.jcr.NodeIterator;
+import javax.jcr.Repository;
+import javax.jcr.RepositoryException;
+import javax.jcr.Session;
+import javax.jcr.query.Query;
+
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+import org.hippoecm.hst.configuration.hosting.Mount;
+import org.hippoecm.hst.configuration.hosting.VirtualHosts;
+import org.hippoecm.hst.configuration.model.HstManager;
+import org.hippoecm.hst.configuration.site.HstSite;
+import org.hippoecm.hst.configuration.sitemap.HstSiteMapItem;
+import org.hippoecm.hst.configuration.sitemenu.HstSiteMenuConfiguration;
+import org.hippoecm.hst.configuration.sitemenu.HstSiteMenuItemConfiguration;
+import org.hippoecm.hst.core.container.ContainerException;
+import org.hippoecm.hst.site.HstServices;
+import org.hippoecm.repository.api.HippoNodeType;
+import org.onehippo.forge.breadcrumb.cache.BreadcrumbCache;
+import org.onehippo.forge.breadcrumb.cache.BreadcrumbSnapshot;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Writes the cached breadcrumbs to a {@link BreadcrumbSnapshot} file when the site webapp stops and, optionally, at
+ * intervals, and loads that file in the background when the site webapp starts, so a fresh instance serves warm
+ * breadcrumbs within seconds.
+ * <p>
+ * The HST model marker of a snapshot is a fingerprint of the live mounts, their sitemaps, including the component
+ * configurations that tell the not found page, and their menus; a snapshot of another model is not loaded. Its
+ * content revision is the time it was written: breadcrumbs of documents modified or published since are dropped on
+ * loading, and snapshots older than the maximum age are not loaded at all. The snapshot also records the identifier
+ * and display name of the content of its breadcrumbs and of the folders above it, see {@link #getNodeState}, so
+ * breadcrumbs below a folder that was renamed, moved or deleted since are dropped as well.
+ * <p>
+ * Restored links refer to their sitemap item by its id, looked up again in the sitemap of the mount.
+ */
+public class BreadcrumbSnapshotter {
+
+	private static final Logger log = LoggerFactory.getLogger(BreadcrumbSnapshotter.class);
+
+	private static final String NT_PUBLISHABLE_SUMMARY = "hippostdpubwf:document";
+	private static final String PROPERTY_LAST_MODIFICATION_DATE = "hippostdpubwf:lastModificationDate";
+	private static final String PROPERTY_PUBLICATION_DATE = "hippostdpubwf:publicationDate";
+	private static final String PROPERTY_DISPLAY_NAME = "hippo:name";
+	private static final DateTimeFormatter JCR_DATE_FORMAT =
+			DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss.SSSXXX").withZone(ZoneOffset.UTC);
+
+	private Repository repository;
+	private Credentials credentials;
+	private HstManager hstManager;
+	private String file;
+	private long interval = 0L;
+	private long maxAge = TimeUnit.HOURS.toMillis(1L);
+
+	private ScheduledExecutorService executor;
+
+	public void setRepository(final Repository repository) {
+		this.repository = repository;
+	}
+
+	public void setCredentials(final Credentials credentials) {
+		this.credentials = credentials;
+	}
+
+	public void setHstManager(final HstManager hstManager) {
+		this.hstManager = hstManager;
+	}
+
+	/**
+	 * @param file path of the snapshot file, preferably on a local disk
+	 */
+	public void setFile(final String file) {
+		this.file = file;
+	}
+
+	/**
+	 * @param interval milliseconds between writes of the snapshot, 0 by default for writing only on stop
+	 */
+	public void setInterval(final long interval) {
+		this.interval = interval;
+	}
+
+	/**
+	 * @param maxAge maximum age in milliseconds of a snapshot to load, one hour by default
+	 */
+	public void setMaxAge(final long maxAge) {
+		this.maxAge = maxAge;
+	}
+
+	/**
+	 * Loads the snapshot in the background and starts writing it at the interval, if any.
+	 */
+	public void initialize() {
+		executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+			final Thread thread = new Thread(runnable, "breadcrumb-snapshot");
+			thread.setDaemon(true);
+			return thread;
+		});
+		executor.execute(() -> {
+			try {
+				load();
+			} catch (ContainerException | RepositoryException | IOException | RuntimeException e) {
+				log.warn("Cannot load breadcrumb snapshot {}: {}", file, e.toString());
+			}
+		});
+		if (interval > 0L) {
+			executor.scheduleWithFixedDelay(this::writeQuietly, interval, interval, TimeUnit.MILLISECONDS);
+		}
+	}
+
+	/**
+	 * Stops loading or writing in the background and writes the snapshot.
+	 */
+	public void destroy() {
+		if (executor != null) {
+			executor.shutdownNow();
+		}
+		writeQuietly();
+	}
+
+	/**
+	 * Loads the snapshot file, if it exists and matches the current HST model, blocking until done.
+	 *
+	 * @return content revision of the loaded snapshot, or -1 if none was loaded
+	 * @throws ContainerException  if the HST model cannot be loaded
+	 * @throws RepositoryException if the changed content cannot be read
+	 * @throws IOException         if the file cannot be read
+	 */
+	public long load() throws ContainerException, RepositoryException, IOException {
+		final Path path = getPath();
+		if (!Files.isRegularFile(path)) {
+			log.info("No breadcrumb snapshot at {}", path);
+			return -1L;
+		}
+
+		final VirtualHosts virtualHosts = getHstManager().getVirtualHosts();
+		final Session session = getRepository().login(getCredentials());
+		try {
+			return BreadcrumbSnapshot.getInstance().load(path, virtualHosts, getModelMarker(virtualHosts),
+					System.currentTimeMillis() - maxAge, revision -> getChangedPaths(session, revision),
+					nodePath -> getNodeState(session, nodePath));
+		} finally {
+			session.logout();
+		}
+	}
+
+	/**
+	 * Writes the snapshot file for the current HST model, blocking until done.
+	 *
+	 * @return number of written breadcrumbs
+	 * @throws ContainerException  if the HST model cannot be loaded
+	 * @throws RepositoryException if the state of the content cannot be read
+	 * @throws IOException         if the file cannot be written
+	 */
+	public int write() throws ContainerException, RepositoryException, IOException {
+		if (BreadcrumbCache.getInstance().size() == 0 && BreadcrumbSnapshot.getInstance().size() == 0) {
+			// do not replace a snapshot by an empty one, e.g. when stopped right after a start
+			return 0;
+		}
+		final String modelMarker = getModelMarker(getHstManager().getVirtualHosts());
+		final Session session = getRepository().login(getCredentials());
+		try {
+			return BreadcrumbSnapshot.getInstance().write(getPath(), modelMarker,
+					nodePath -> getNodeState(session, nodePath));
+		} finally {
+			session.logout();
+		}
+	}
+
+	private void writeQuietly() {
+		try {
+			write();
+		} catch (ContainerException | RepositoryException | IOException | RuntimeException e) {
+			log.warn("Cannot write breadcrumb snapshot {}: {}", file, e.toString());
+		}
+	}
+
+	/**
+	 * Returns the fingerprint of an HST model, covering what breadcrumbs depend on: the content paths and
+	 * configurations of the live mounts, the sitemap items with their content paths and component configurations,
+	 * which tell whether a link leads to the not found page, and the menu items.
+	 *
+	 * @param virtualHosts HST model
+	 * @return fingerprint, equal for equal models in other instances of the site webapp
+	 */
+	protected String getModelMarker(final VirtualHosts virtualHosts) {
+		// sorted, so the fingerprint does not depend on the order of the host groups and mounts
+		final Set<String> mounts = new TreeSet<>();
+		for (String hostGroupName : virtualHosts.getHostGroupNames()) {
+			for (Mount mount : virtualHosts.getMountsByHostGroup(hostGroupName)) {
+				final HstSite site = mount.getHstSite();
+				if (mount.isPreview() || site == null) {
+					continue;
+				}
+				final StringBuilder builder = new StringBuilder();
+				builder.append(mount.getContentPath()).append('|').append(site.getConfigurationPath());
+				appendSiteMapItems(builder, site.getSiteMap().getSiteMapItems());
+				final Map<String, HstSiteMenuConfiguration> menus =
+						new TreeMap<>(site.getSiteMenusConfiguration().getSiteMenuConfigurations());
+				for (HstSiteMenuConfiguration menu : menus.values()) {
+					builder.append("|menu:").append(menu.getName());
+					appendMenuItems(builder, menu.getSiteMenuConfigurationItems());
+				}
+				mounts.add(builder.toString());
+			}
+		}
+
+		final Hasher hasher = Hashing.sha256().newHasher();
+		for (String mount : mounts) {
+			hasher.putString(mount, StandardCharsets.UTF_8).putByte((byte) 0);
+		}
+		return hasher.hash().toString();
+	}
+
+	/**
+	 * Returns the state of the node at a path that breadcrumbs depend on: its identifier, which differs when it was
+	 * replaced, and its display name, which the titles of the breadcrumb items are taken from. A renamed, moved or
+	 * deleted node is no longer at the path.
+	 *
+	 * @param session JCR session
+	 * @param path    absolute repository path
+	 * @return state of the node, or null if there is no node at the path
+	 * @throws RepositoryException if the node cannot be read
+	 */
+	protected String getNodeState(final Session session, final String path) throws RepositoryException {
+		if (!session.nodeExists(path)) {
+			return null;
+		}
+		final Node node = session.getNode(path);
+		final String displayName = node.hasProperty(PROPERTY_DISPLAY_NAME)
+				? node.getProperty(PROPERTY_DISPLAY_NAME).getString() : node.getName();
+		return node.getIdentifier() + '|' + displayName;
+	}
+
+	/**
+	 * Returns the paths of the documents modified or published since a content revision.
+	 *
+	 * @param session  JCR session
+	 * @param revision content revision, in milliseconds since the epoch
+	 * @return absolute paths of the document handles
+	 * @throws RepositoryException if the query fails
+	 */
+	protected Set<String> getChangedPaths(final Session session, final long revision) throws RepositoryException {
+		final String date = JCR_DATE_FORMAT.format(Instant.ofEpochMilli(revision));
+		final String statement = "SELECT * FROM [" + NT_PUBLISHABLE_SUMMARY + "] AS d WHERE d.["
+				+ PROPERTY_LAST_MODIFICATION_DATE + "] > CAST('" + date + "' AS DATE) OR d.["
+				+ PROPERTY_PUBLICATION_DATE + "] > CAST('" + date + "' AS DATE)";
+		final NodeIterator nodes = session.getWorkspace().getQueryManager().createQuery(statement, Query.JCR_SQL2)
+				.execute().getNodes();
+
+		final Set<String> paths = new TreeSet<>();
+		while (nodes.hasNext()) {
+			final Node node = nodes.nextNode();
+			final Node parent = node.getParent();
+			paths.add(parent.isNodeType(HippoNodeType.NT_HANDLE) ? parent.getPath() : node.getPath());
+		}
+		return paths;
+	}
+
+	private static void appendSiteMapItems(final StringBuilder builder, final List<HstSiteMapItem> items) {
+		for (HstSiteMapItem item : items) {
+			builder.append("|item:").append(item.getValue()).append('=').append(item.getRelativeContentPath())
+					.append(',').append(item.getComponentConfigurationId());
+			if (item.getComponentConfigurationIdMappings() != null) {
+				builder.append(',').append(new TreeMap<>(item.getComponentConfigurationIdMappings()));
+			}
+			builder.append('[');
+			appendSiteMapItems(builder, item.getChildren());
+			builder.append(']');
+		}
+	}
+
+	private static void appendMenuItems(final StringBuilder builder, final List<HstSiteMenuItemConfiguration> items) {
+		for (HstSiteMenuItemConfiguration item : items) {
+			builder.append("|menuitem:").append(item.getName()).append('=').append(item.getSiteMapItemPath())
+					.append(',').append(item.getExternalLink()).append(',').append(item.getMountAlias()).append(',')
+					.append(item.isRepositoryBased()).append('[');
+			appendMenuItems(builder, item.getChildItemConfigurations());
+			builder.append(']');
+		}
+	}
+
+	private Path getPath() {
+		if (file == null) {
+			throw new IllegalStateException("No breadcrumb snapshot file configured");
+		}
+		return Paths.get(file);
+	}
+
+	private HstManager getHstManager() {
+		if (hstManager == null) {
+			hstManager = HstServices.getComponentManager().getComponent(HstManager.class.getName());
+		}
+		return hstManager;
+	}
+
+	private Repository getRepository() {
+		if (repository == null) {
+			repository = HstServices.getComponentManager().getComponent(Repository.class.getName());
+		}
+		return repository;
+	}
+
+	private Credentials getCredentials() {
+		if (credentials == null) {
+			credentials = HstServices.getComponentManager().getComponent(Credentials.class.getName() + ".default");
+		}
+		return credentials;
+	}
+}
@@ -0,0 +1,432 @@
+/*
+ * Copyright 2026 Bloomreach
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onehippo.forge.breadcrumb.warmup;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.jcr.Credentials;
+import javax.jcr.Node;
+import javax.jcr.NodeIterator;
+import javax.jcr.Repository;
+import javax.jcr.RepositoryException;
+import javax.jcr.Session;
+
+import org.hippoecm.hst.configuration.hosting.Mount;
+import org.hippoecm.hst.configuration.hosting.VirtualHosts;
+import org.hippoecm.hst.configuration.model.HstManager;
+import org.hippoecm.hst.configuration.site.HstSite;
+import org.hippoecm.hst.configuration.sitemap.HstSiteMapItem;
+import org.hippoecm.hst.configuration.sitemenu.HstSiteMenuConfiguration;
+import org.hippoecm.hst.configuration.sitemenu.HstSiteMenuItemConfiguration;
+import org.hippoecm.hst.core.container.ContainerException;
+import org.hippoecm.hst.core.linking.HstLink;
+import org.hippoecm.hst.core.linking.HstLinkCreator;
+import org.hippoecm.hst.site.HstServices;
+import org.hippoecm.repository.api.HippoNodeType;
+import org.onehippo.forge.breadcrumb.cache.AncestorEntry;
+import org.onehippo.forge.breadcrumb.cache.AncestorIndex;
+import org.onehippo.forge.breadcrumb.cache.AncestorPrefetcher;
+import org.onehippo.forge.breadcrumb.cache.ContentPaths;
+import org.onehippo.forge.breadcrumb.cache.LinkMemo;
+import org.onehippo.forge.breadcrumb.cache.LinkScope;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Warm-up of the shared breadcrumb caches after a (re)start of the site webapp.
+ * <p>
+ * Walks the menus of all live mounts, resolves their items to content folders through the explicit sitemap items,
+ * and indexes these folders plus a configurable number of content levels below them in the {@link AncestorIndex},
+ * creating their links into the {@link LinkMemo}. Of the mounts sharing a {@link LinkScope}, only the first is walked.
+ * The walk is done by a fork/join pool of which every worker reads with its own JCR session.
+ * <p>
+ * Breadcrumbs themselves need a request, so they are not precomputed; with the warmed caches, providers with
+ * <code>breadcrumb-cache-enabled</code> create them without loading beans or creating links.
+ */
+public class BreadcrumbWarmUp {
+
+	private static final Logger log = LoggerFactory.getLogger(BreadcrumbWarmUp.class);
+
+	private static final String NT_FOLDER = "hippostd:folder";
+	private static final String NT_DIRECTORY = "hippostd:directory";
+
+	private Repository repository;
+	private Credentials credentials;
+	private HstManager hstManager;
+	private HstLinkCreator linkCreator;
+	private List<String> menuNames;
+	private int contentLevels = 2;
+	private int parallelism = 2;
+	private long delay = 0L;
+
+	private volatile ForkJoinPool pool;
+	private Thread thread;
+
+	public void setRepository(final Repository repository) {
+		this.repository = repository;
+	}
+
+	public void setCredentials(final Credentials credentials) {
+		this.credentials = credentials;
+	}
+
+	public void setHstManager(final HstManager hstManager) {
+		this.hstManager = hstManager;
+	}
+
+	public void setLinkCreator(final HstLinkCreator linkCreator) {
+		this.linkCreator = linkCreator;
+	}
+
+	/**
+	 * @param menus comma separated names of the menus to walk, all menus by default
+	 */
+	public void setMenus(final String menus) {
+		final List<String> list = new ArrayList<>();
+		for (String name : menus.split(",")) {
+			list.add(name.trim());
+		}
+		this.menuNames = Collections.unmodifiableList(list);
+	}
+
+	/**
+	 * @param contentLevels number of content levels below the folder of a menu item to index, 2 by default
+	 */
+	public void setContentLevels(final int contentLevels) {
+		this.contentLevels = contentLevels;
+	}
+
+	/**
+	 * @param parallelism number of worker threads, 2 by default
+	 */
+	public void setParallelism(final int parallelism) {
+		this.parallelism = parallelism;
+	}
+
+	/**
+	 * @param delay milliseconds to wait after initialization before warming up, 0 by default
+	 */
+	public void setDelay(final long delay) {
+		this.delay = delay;
+	}
+
+	/**
+	 * Starts the warm-up in the background.
+	 */
+	public void initialize() {
+		thread = new Thread(() -> {
+			try {
+				if (delay > 0L) {
+					Thread.sleep(delay);
+				}
+				warmUp();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			} catch (ContainerException | RuntimeException e) {
+				log.warn("Breadcrumb warm-up failed: {}", e.toString());
+			}
+		}, "breadcrumb-warmup");
+		thread.setDaemon(true);
+		thread.start();
+	}
+
+	/**
+	 * Stops a running warm-up.
+	 */
+	public void destroy() {
+		if (thread != null) {
+			thread.interrupt();
+		}
+		final ForkJoinPool running = pool;
+		if (running != null) {
+			running.shutdownNow();
+		}
+	}
+
+	/**
+	 * Warms up the caches for the current HST model, blocking until done.
+	 *
+	 * @return number of indexed nodes
+	 * @throws ContainerException if the HST model cannot be loaded
+	 */
+	public long warmUp() throws ContainerException {
+		final long start = System.nanoTime();
+		final VirtualHosts virtualHosts = getHstManager().getVirtualHosts();
+		final LongAdder count = new LongAdder();
+
+		final List<ForkJoinTask<?>> tasks = new ArrayList<>();
+		final Set<LinkScope> scopes = new HashSet<>();
+		for (String hostGroupName : virtualHosts.getHostGroupNames()) {
+			for (Mount mount : virtualHosts.getMountsByHostGroup(hostGroupName)) {
+				// links memoized for one mount of a scope are rebased on the others
+				if (mount.isPreview() || mount.getHstSite() == null || !scopes.add(LinkScope.of(mount))) {
+					continue;
+				}
+				for (String path : getMenuContentPaths(mount)) {
+					tasks.add(new RootTask(virtualHosts, mount, path, count));
+				}
+			}
+		}
+
+		pool = new ForkJoinPool(parallelism, WorkerThread::new, null, false);
+		try {
+			tasks.forEach(pool::execute);
+			for (ForkJoinTask<?> task : tasks) {
+				task.quietlyJoin();
+			}
+		} finally {
+			pool.shutdown();
+			pool = null;
+		}
+
+		log.info("Breadcrumb warm-up indexed {} nodes below {} menu items in {} ms", count.sum(), tasks.size(),
+				TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+		return count.sum();
+	}
+
+	/**
+	 * Returns the absolute content paths of the menu items of a mount that resolve to an explicit sitemap item.
+	 *
+	 * @param mount live mount with a site
+	 * @return content paths, without duplicates
+	 */
+	protected Set<String> getMenuContentPaths(final Mount mount) {
+		final HstSite site = mount.getHstSite();
+		final Map<String, String> relativeContentPaths = new HashMap<>();
+		for (HstSiteMapItem item : site.getSiteMap().getSiteMapItems()) {
+			addRelativeContentPaths(relativeContentPaths, item, "");
+		}
+
+		final Set<String> paths = new LinkedHashSet<>();
+		for (HstSiteMenuConfiguration menu : site.getSiteMenusConfiguration().getSiteMenuConfigurations().values()) {
+			if (menuNames == null || menuNames.contains(menu.getName())) {
+				addContentPaths(paths, menu.getSiteMenuConfigurationItems(), relativeContentPaths,
+						mount.getContentPath());
+			}
+		}
+		return paths;
+	}
+
+	private static void addRelativeContentPaths(final Map<String, String> relativeContentPaths,
+			final HstSiteMapItem item, final String parentPath) {
+		if (item.isWildCard() || item.isAny()) {
+			return;
+		}
+
+		final String path = parentPath + item.getValue();
+		final String relativeContentPath = item.getRelativeContentPath();
+		if (relativeContentPath != null && !relativeContentPath.contains("${")) {
+			relativeContentPaths.put(path, relativeContentPath);
+		}
+		for (HstSiteMapItem child : item.getChildren()) {
+			addRelativeContentPaths(relativeContentPaths, child, path + "/");
+		}
+	}
+
+	private static void addContentPaths(final Set<String> paths, final List<HstSiteMenuItemConfiguration> items,
+			final Map<String, String> relativeContentPaths, final String contentPath) {
+		for (HstSiteMenuItemConfiguration item : items) {
+			final String siteMapItemPath = item.getSiteMapItemPath();
+			final String relativeContentPath = (siteMapItemPath == null) ? null
+					: relativeContentPaths.get(trimSlashes(siteMapItemPath));
+			if (relativeContentPath != null) {
+				paths.add(ContentPaths.of(contentPath, relativeContentPath));
+			}
+			addContentPaths(paths, item.getChildItemConfigurations(), relativeContentPaths, contentPath);
+		}
+	}
+
+	private static String trimSlashes(final String path) {
+		int begin = 0;
+		int end = path.length();
+		while (begin < end && path.charAt(begin) == '/') {
+			begin++;
+		}
+		while (end > begin && path.charAt(end - 1) == '/') {
+			end--;
+		}
+		return path.substring(begin, end);
+	}
+
+	private HstManager getHstManager() {
+		if (hstManager == null) {
+			hstManager = HstServices.getComponentManager().getComponent(HstManager.class.getName());
+		}
+		return hstManager;
+	}
+
+	private HstLinkCreator getLinkCreator() {
+		if (linkCreator == null) {
+			linkCreator = HstServices.getComponentManager().getComponent(HstLinkCreator.class.getName());
+		}
+		return linkCreator;
+	}
+
+	private Repository getRepository() {
+		if (repository == null) {
+			repository = HstServices.getComponentManager().getComponent(Repository.class.getName());
+		}
+		return repository;
+	}
+
+	private Credentials getCredentials() {
+		if (credentials == null) {
+			credentials = HstServices.getComponentManager().getComponent(Credentials.class.getName() + ".default");
+		}
+		return credentials;
+	}
+
+	/**
+	 * Fork/join worker reading with its own session, which is logged in on first use.
+	 */
+	private final class WorkerThread extends ForkJoinWorkerThread {
+
+		private Session session;
+
+		private WorkerThread(final ForkJoinPool pool) {
+			super(pool);
+			setName("breadcrumb-warmup-" + getPoolIndex());
+			setDaemon(true);
+		}
+
+		private Session getSession() throws RepositoryException {
+			if (session == null) {
+				session = getRepository().login(getCredentials());
+			}
+			return session;
+		}
+
+		@Override
+		protected void onTermination(final Throwable exception) {
+			if (session != null) {
+				session.logout();
+			}
+			super.onTermination(exception);
+		}
+	}
+
+	/**
+	 * Indexes the folder of a menu item with its ancestors, then its subtree.
+	 */
+	private final class RootTask extends RecursiveAction {
+
+		private final VirtualHosts virtualHosts;
+		private final Mount mount;
+		private final String path;
+		private final LongAdder count;
+
+		private RootTask(final VirtualHosts virtualHosts, final Mount mount, final String path,
+				final LongAdder count) {
+			this.virtualHosts = virtualHosts;
+			this.mount = mount;
+			this.path = path;
+			this.count = count;
+		}
+
+		@Override
+		protected void compute() {
+			try {
+				final Session session = ((WorkerThread) Thread.currentThread()).getSession();
+				count.add(AncestorPrefetcher.prefetch(session, path, mount.getContentPath(),
+						AncestorIndex.getInstance()));
+				if (session.nodeExists(path)) {
+					final Node node = session.getNode(path);
+					memoizeLink(virtualHosts, mount, node);
+					if (contentLevels > 0) {
+						new FolderTask(virtualHosts, mount, path, contentLevels, count).compute();
+					}
+				}
+			} catch (RepositoryException e) {
+				log.warn("Breadcrumb warm-up cannot index {}: {}", path, e.toString());
+			}
+		}
+	}
+
+	/**
+	 * Indexes the children of a folder, forking a task per sub folder.
+	 */
+	private final class FolderTask extends RecursiveAction {
+
+		private final VirtualHosts virtualHosts;
+		private final Mount mount;
+		private final String path;
+		private final int levels;
+		private final LongAdder count;
+
+		private FolderTask(final VirtualHosts virtualHosts, final Mount mount, final String path, final int levels,
+				final LongAdder count) {
+			this.virtualHosts = virtualHosts;
+			this.mount = mount;
+			this.path = path;
+			this.levels = levels;
+			this.count = count;
+		}
+
+		@Override
+		protected void compute() {
+			final List<FolderTask> subTasks = new ArrayList<>();
+			try {
+				final Session session = ((WorkerThread) Thread.currentThread()).getSession();
+				final Node folder = session.getNode(path);
+				final NodeIterator children = folder.getNodes();
+				while (children.hasNext() && !Thread.currentThread().isInterrupted()) {
+					final Node child = children.nextNode();
+					if (child.isNodeType(HippoNodeType.NT_HANDLE)) {
+						if (child.hasNode(child.getName())) {
+							index(child.getNode(child.getName()), folder);
+						}
+					} else if (child.isNodeType(NT_FOLDER) || child.isNodeType(NT_DIRECTORY)) {
+						index(child, folder);
+						if (levels > 1) {
+							subTasks.add(new FolderTask(virtualHosts, mount, child.getPath(), levels - 1, count));
+						}
+					}
+				}
+			} catch (RepositoryException e) {
+				log.warn("Breadcrumb warm-up cannot index {}: {}", path, e.toString());
+			}
+			invokeAll(subTasks);
+		}
+
+		private void index(final Node node, final Node parent) throws RepositoryException {
+			AncestorIndex.getInstance().put(new AncestorEntry(node.getIdentifier(), parent.getIdentifier(),
+					AncestorPrefetcher.getDisplayName(node), node.getPath()));
+			memoizeLink(virtualHosts, mount, node);
+			count.increment();
+		}
+	}
+
+	private void memoizeLink(final VirtualHosts virtualHosts, final Mount mount, final Node node)
+			throws RepositoryException {
+		final HstLink link = getLinkCreator().create(node, mount);
+		if (link != null) {
+			LinkMemo.getInstance().put(virtualHosts, mount, node.getIdentifier(), node.getPath(), link);
+		}
+	}
+}
@@ -0,0 +1,76 @@
+/*
+ * Copyright 2026 Bloomreach
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onehippo.forge.breadcrumb.cache;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.List;
+
+import org.hippoecm.hst.core.linking.HstLink;
+import org.hippoecm.hst.mock.core.linking.MockHstLink;
+import org.junit.Test;
+import org.onehippo.forge.breadcrumb.components.BreadcrumbProvider;
+import org.onehippo.forge.breadcrumb.om.Breadcrumb;
+import org.onehippo.forge.breadcrumb.om.BreadcrumbItem;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class BreadcrumbCodecTest {
+
+    @Test
+    public void testBreadcrumbRoundTrip() throws IOException {
+        final HstLink notFound = new MockHstLink("pagenotfound");
+        notFound.setNotFound(true);
+        final Breadcrumb source = new Breadcrumb(Arrays.asList(new BreadcrumbItem(new MockHstLink("news"), "News"),
+                new BreadcrumbItem(null, "\u2026"), new BreadcrumbItem(notFound, "Caf\u00e9")), "&#187;",
+                BreadcrumbProvider.LinkNotFoundMode.UNLINK);
+
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        BreadcrumbCodec.writeBreadcrumb(new DataOutputStream(bytes), source);
+        final ByteBuffer in = ByteBuffer.wrap(bytes.toByteArray());
+        final Breadcrumb breadcrumb = BreadcrumbCodec.readBreadcrumb(in, null);
+
+        assertFalse(in.hasRemaining());
+        assertEquals("&#187;", breadcrumb.getSeparator());
+        assertEquals("unlink", breadcrumb.getLinkNotFoundMode());
+        final List<BreadcrumbItem> items = breadcrumb.getItems();
+        assertEquals(source.getItems(), items);
+        assertNull(items.get(1).getLink());
+        assertFalse(items.get(0).getLink().isNotFound());
+        assertTrue(items.get(2).getLink().isNotFound());
+    }
+
+    @Test
+    public void testVarInt() throws IOException {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        final DataOutputStream out = new DataOutputStream(bytes);
+        for (int value : new int[] {0, 127, 128, 16384, Integer.MAX_VALUE}) {
+            BreadcrumbCodec.writeVarInt(out, value);
+        }
+
+        final ByteBuffer in = ByteBuffer.wrap(bytes.toByteArray());
+        assertEquals(1 + 1 + 2 + 3 + 5, in.remaining());
+        for (int value : new int[] {0, 127, 128, 16384, Integer.MAX_VALUE}) {
+            assertEquals(value, BreadcrumbCodec.readVarInt(in));
+        }
+    }
+}
@@ -0,0 +1,88 @@
+/*
+ * Copyright 2026 Bloomreach
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onehippo.forge.breadcrumb.cache;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+import javax.jcr.observation.Event;
+import javax.jcr.observation.EventIterator;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+public class BreadcrumbInvalidationListenerTest {
+
+    @Test
+    public void testVariantChangesEvictHandle() {
+        assertEquals(List.of("/content/documents/site/news/article"), evicted(
+                event(Event.PROPERTY_CHANGED, "/content/documents/site/news/article/article/hippostd:state"),
+                event(Event.NODE_ADDED, "/content/documents/site/news/article/article[2]/site:image"),
+                event(Event.PROPERTY_CHANGED, "/content/documents/site/news/article/hippo:translation/hippo:message")));
+    }
+
+    @Test
+    public void testFolderChangesEvictFolder() {
+        assertEquals(List.of("/content/documents/site/events", "/content/documents/site/news"), evicted(
+                event(Event.PROPERTY_CHANGED, "/content/documents/site/news/hippo:name"),
+                event(Event.NODE_REMOVED, "/content/documents/site/events")));
+    }
+
+    private static List<String> evicted(final Event... events) {
+        final List<String> paths = new ArrayList<>();
+        final BreadcrumbInvalidationListener listener = new BreadcrumbInvalidationListener() {
+            @Override
+            protected void invalidateSubtree(final String path) {
+                paths.add(path);
+            }
+        };
+        final Iterator<Event> iterator = Arrays.asList(events).iterator();
+        listener.onEvent((EventIterator) Proxy.newProxyInstance(EventIterator.class.getClassLoader(),
+                new Class<?>[] {EventIterator.class}, (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "hasNext":
+                            return iterator.hasNext();
+                        case "nextEvent":
+                        case "next":
+                            return iterator.next();
+                        default:
+                            return null;
+                    }
+                }));
+        return paths;
+    }
+
+    private static Event event(final int type, final String path) {
+        return (Event) Proxy.newProxyInstance(Event.class.getClassLoader(), new Class<?>[] {Event.class},
+                (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "getType":
+                            return type;
+                        case "getPath":
+                            return path;
+                        case "getInfo":
+                            return Map.of();
+                        default:
+                            return null;
+                    }
+                });
+    }
+}
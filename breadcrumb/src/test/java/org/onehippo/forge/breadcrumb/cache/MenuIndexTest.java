@@ -0,0 +1,101 @@
+/*
+ * Copyright 2026 Bloomreach
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onehippo.forge.breadcrumb.cache;
+
+import java.lang.reflect.Proxy;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.hippoecm.hst.configuration.sitemenu.HstSiteMenuItemConfiguration;
+import org.hippoecm.hst.core.linking.HstLinkCreator;
+import org.hippoecm.hst.mock.core.linking.MockHstLink;
+import org.junit.Test;
+import org.onehippo.forge.breadcrumb.om.BreadcrumbItem;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class MenuIndexTest {
+
+    private static final HstLinkCreator LINK_CREATOR = (HstLinkCreator) Proxy.newProxyInstance(
+            HstLinkCreator.class.getClassLoader(), new Class<?>[] {HstLinkCreator.class},
+            (proxy, method, args) -> new MockHstLink((String) args[0]));
+
+    private final MenuIndex.Menu menu = new MenuIndex.Menu(Arrays.asList(
+            item("News", "news",
+                    item("Archive", "news/archive"),
+                    item("Events", "events")),
+            item("Latest news", "news"),
+            item("Help", null,
+                    item("Contact", "contact"))), null, LINK_CREATOR);
+
+    @Test
+    public void testDeepestExpandedItem() {
+        assertTrue(menu.isIndexed());
+        assertEquals(List.of("News", "Archive"), titles(menu.getTrail("news/archive")));
+        assertEquals(List.of("News", "Archive"), titles(menu.getTrail("news/archive/2024/first")));
+        assertEquals(List.of("News"), titles(menu.getTrail("news/2024")));
+        assertEquals(List.of("Help", "Contact"), titles(menu.getTrail("contact")));
+        assertTrue(menu.getTrail("newsletter").isEmpty());
+        assertTrue(menu.getTrail("").isEmpty());
+    }
+
+    @Test
+    public void testFirstExpandedItemIsFollowed() {
+        // events is a child of the first news item, which precedes the second one having the same link
+        assertEquals(List.of("News", "Events"), titles(menu.getTrail("events")));
+        assertEquals("news", menu.getTrail("news").toItems(null).get(0).getLink().getPath());
+    }
+
+    @Test
+    public void testRepositoryBasedMenuIsNotIndexed() {
+        final HstSiteMenuItemConfiguration repositoryBased = stub("Documents", "documents", true, List.of());
+        final MenuIndex.Menu unindexed = new MenuIndex.Menu(List.of(item("News", "news", repositoryBased)), null,
+                LINK_CREATOR);
+        assertFalse(unindexed.isIndexed());
+    }
+
+    private static List<String> titles(final MenuIndex.Trail trail) {
+        return trail.toItems(null).stream().map(BreadcrumbItem::getTitle).collect(Collectors.toList());
+    }
+
+    private static HstSiteMenuItemConfiguration item(final String name, final String siteMapItemPath,
+            final HstSiteMenuItemConfiguration... children) {
+        return stub(name, siteMapItemPath, false, Arrays.asList(children));
+    }
+
+    private static HstSiteMenuItemConfiguration stub(final String name, final String siteMapItemPath,
+            final boolean repositoryBased, final List<HstSiteMenuItemConfiguration> children) {
+        return (HstSiteMenuItemConfiguration) Proxy.newProxyInstance(
+                HstSiteMenuItemConfiguration.class.getClassLoader(), new Class<?>[] {HstSiteMenuItemConfiguration.class},
+                (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "getName":
+                            return name;
+                        case "getSiteMapItemPath":
+                            return siteMapItemPath;
+                        case "isRepositoryBased":
+                            return repositoryBased;
+                        case "getChildItemConfigurations":
+                            return children;
+                        default:
+                            return null;
+                    }
+                });
+    }
+}
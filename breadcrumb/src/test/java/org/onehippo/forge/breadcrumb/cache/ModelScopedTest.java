@@ -0,0 +1,68 @@
+/*
+ * Copyright 2026 Bloomreach
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onehippo.forge.breadcrumb.cache;
+
+import java.util.ArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class ModelScopedTest {
+
+    @Test
+    public void testGenerationsDuringReloadKeepTheirValues() {
+        final AtomicInteger created = new AtomicInteger();
+        final ModelScoped<ArrayList<String>> scoped = new ModelScoped<>(() -> {
+            created.incrementAndGet();
+            return new ArrayList<>();
+        });
+        final Object oldModel = new Object();
+        final Object newModel = new Object();
+
+        final ArrayList<String> oldValue = scoped.get(oldModel);
+        oldValue.add("old");
+        final ArrayList<String> newValue = scoped.get(newModel);
+        assertNotSame(oldValue, newValue);
+
+        // requests of both models alternate while the reload goes on, without replacing each other's value
+        assertSame(oldValue, scoped.get(oldModel));
+        assertSame(newValue, scoped.get(newModel));
+        assertSame(oldValue, scoped.get(oldModel));
+        assertEquals(2, created.get());
+        assertEquals("old", scoped.get(oldModel).get(0));
+
+        assertSame(newValue, scoped.peek());
+        assertEquals(2, scoped.values().size());
+        assertTrue(scoped.values().contains(oldValue));
+    }
+
+    @Test
+    public void testWithoutModel() {
+        final ModelScoped<ArrayList<String>> scoped = new ModelScoped<>(ArrayList::new);
+        assertNull(scoped.peek());
+        assertSame(scoped.get((Object) null), scoped.get((Object) null));
+
+        scoped.clear();
+        assertNull(scoped.peek());
+        assertTrue(scoped.values().isEmpty());
+    }
+}
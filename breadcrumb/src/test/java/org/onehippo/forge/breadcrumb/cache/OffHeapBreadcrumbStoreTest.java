@@ -0,0 +1,150 @@
+/*
+ * Copyright 2026 Bloomreach
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onehippo.forge.breadcrumb.cache;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.hippoecm.hst.configuration.hosting.Mount;
+import org.hippoecm.hst.mock.core.linking.MockHstLink;
+import org.junit.Test;
+import org.onehippo.forge.breadcrumb.om.Breadcrumb;
+import org.onehippo.forge.breadcrumb.om.BreadcrumbItem;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+public class OffHeapBreadcrumbStoreTest {
+
+    private static final Mount MOUNT = (Mount) Proxy.newProxyInstance(Mount.class.getClassLoader(),
+            new Class<?>[] {Mount.class}, (proxy, method, args) -> {
+                switch (method.getName()) {
+                    case "getContentPath":
+                        return "/content/documents/site";
+                    case "isPreview":
+                        return false;
+                    case "hashCode":
+                        return System.identityHashCode(proxy);
+                    case "equals":
+                        return proxy == args[0];
+                    default:
+                        return null;
+                }
+            });
+
+    @Test
+    public void testPutAndGet() {
+        final OffHeapBreadcrumbStore store = new OffHeapBreadcrumbStore(1 << 16);
+        store.put(key("news/first"), "/content/documents/site/news/first", breadcrumb("news/first"));
+        store.put(key("news/second"), "/content/documents/site/news/second", breadcrumb("news/second"));
+
+        final BreadcrumbSnapshot.Restored restored = store.get(key("news/first"), MOUNT);
+        assertNotNull(restored);
+        assertEquals("/content/documents/site/news/first", restored.contentPath);
+        assertEquals(breadcrumb("news/first").getItems(), restored.breadcrumb.getItems());
+        assertEquals(MOUNT, restored.breadcrumb.getItems().get(0).getLink().getMount());
+        assertNull(store.get(key("news/third"), MOUNT));
+    }
+
+    @Test
+    public void testInvalidateSubtree() {
+        final OffHeapBreadcrumbStore store = new OffHeapBreadcrumbStore(1 << 16);
+        store.put(key("news"), "/content/documents/site/news", breadcrumb("news"));
+        store.put(key("news/first"), "/content/documents/site/news/first", breadcrumb("news/first"));
+        store.put(key("news-archive"), "/content/documents/site/news-archive", breadcrumb("news-archive"));
+
+        assertEquals(2, store.invalidateSubtree("/content/documents/site/news"));
+        assertNull(store.get(key("news"), MOUNT));
+        assertNull(store.get(key("news/first"), MOUNT));
+        assertNotNull(store.get(key("news-archive"), MOUNT));
+    }
+
+    @Test
+    public void testInvalidateSubtreeFollowsReplacedRecords() {
+        final OffHeapBreadcrumbStore store = new OffHeapBreadcrumbStore(1 << 16);
+        store.put(key("news"), "/content/documents/site/news", breadcrumb("news"));
+        store.put(key("news"), "/content/documents/site/events", breadcrumb("events"));
+
+        assertEquals(0, store.invalidateSubtree("/content/documents/site/news"));
+        assertEquals(1, store.invalidateSubtree("/content/documents/site/events/"));
+        assertNull(store.get(key("news"), MOUNT));
+
+        store.put(key("news"), "/content/documents/site/news", breadcrumb("news"));
+        assertEquals(1, store.invalidateSubtree("/content/documents/site"));
+    }
+
+    @Test
+    public void testForEachSkipsRemovedRecords() {
+        // more records than a batch, fewer than fit
+        final OffHeapBreadcrumbStore store = new OffHeapBreadcrumbStore(1 << 20);
+        for (int i = 0; i < 600; i++) {
+            store.put(key("page" + i), "/content/documents/site/page" + i, breadcrumb("page" + i));
+        }
+        store.invalidate(key("page1"));
+        store.invalidateSubtree("/content/documents/site/page2");
+
+        final List<String> pathInfos = new ArrayList<>();
+        // the lock is released before passing on, so the consumer may write to the store
+        store.forEach((key, contentPath, breadcrumb) -> {
+            pathInfos.add(key.getPathInfo());
+            store.invalidate(key);
+        });
+        assertEquals(598, pathInfos.size());
+        assertFalse(pathInfos.contains("page1"));
+        assertFalse(pathInfos.contains("page2"));
+        assertEquals(0L, store.size());
+    }
+
+    @Test
+    public void testEvictsOldestSlab() {
+        // the smallest slabs hold a few dozen records, two of them being allocated
+        final OffHeapBreadcrumbStore store = new OffHeapBreadcrumbStore(1);
+        for (int i = 0; i < 1000; i++) {
+            store.put(key("page" + i), "/content/documents/site/page" + i, breadcrumb("section/page" + i));
+        }
+
+        assertNull(store.get(key("page0"), MOUNT));
+        assertNotNull(store.get(key("page999"), MOUNT));
+        assertEquals(store.size(), countPresent(store));
+    }
+
+    private static long countPresent(final OffHeapBreadcrumbStore store) {
+        long count = 0L;
+        for (int i = 0; i < 1000; i++) {
+            if (store.get(key("page" + i), MOUNT) != null) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private static BreadcrumbCacheKey key(final String pathInfo) {
+        return new BreadcrumbCacheKey("provider", "component", LinkScope.of(MOUNT), pathInfo, List.of("main"), "/", null,
+                false, true, 0, 1);
+    }
+
+    private static Breadcrumb breadcrumb(final String path) {
+        final String[] names = path.split("/");
+        final BreadcrumbItem[] items = new BreadcrumbItem[names.length];
+        for (int i = 0; i < names.length; i++) {
+            items[i] = new BreadcrumbItem(new MockHstLink(path), names[i]);
+        }
+        return new Breadcrumb(List.of(items), "/", null);
+    }
+}
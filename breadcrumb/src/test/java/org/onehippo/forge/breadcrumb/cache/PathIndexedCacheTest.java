@@ -0,0 +1,56 @@
+/*
+ * Copyright 2026 Bloomreach
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onehippo.forge.breadcrumb.cache;
+
+import java.util.function.Function;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+public class PathIndexedCacheTest {
+
+    @Test
+    public void testInvalidateSubtree() {
+        final PathIndexedCache<String, String> cache = new PathIndexedCache<>(100, Function.identity());
+        cache.put("a", "/content/site/news");
+        cache.put("b", "/content/site/news/2024/article");
+        cache.put("c", "/content/site/news-archive");
+        cache.put("d", "/content/site/events");
+
+        assertEquals(2, cache.invalidateSubtree("/content/site/news"));
+        assertNull(cache.getIfPresent("a"));
+        assertNull(cache.getIfPresent("b"));
+        assertNotNull(cache.getIfPresent("c"));
+        assertNotNull(cache.getIfPresent("d"));
+
+        assertEquals(2, cache.invalidateSubtree("/"));
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void testReplacedValueIsIndexedByNewPath() {
+        final PathIndexedCache<String, String> cache = new PathIndexedCache<>(100, Function.identity());
+        cache.put("a", "/content/site/news/article");
+        cache.put("a", "/content/site/events/article");
+
+        assertEquals(0, cache.invalidateSubtree("/content/site/news"));
+        assertEquals(1, cache.invalidateSubtree("/content/site/events"));
+        assertNull(cache.getIfPresent("a"));
+    }
+}
@@ -0,0 +1,146 @@
+/*
+ * Copyright 2026 Bloomreach
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onehippo.forge.breadcrumb.components;
+
+import java.lang.management.ManagementFactory;
+import java.lang.reflect.Proxy;
+import java.util.Map;
+
+import org.hippoecm.hst.component.support.bean.BaseHstComponent;
+import org.hippoecm.hst.configuration.hosting.Mount;
+import org.hippoecm.hst.configuration.hosting.VirtualHost;
+import org.hippoecm.hst.configuration.hosting.VirtualHosts;
+import org.hippoecm.hst.core.component.HstRequest;
+import org.hippoecm.hst.core.request.HstRequestContext;
+import org.hippoecm.hst.core.request.ResolvedMount;
+import org.hippoecm.hst.core.request.ResolvedSiteMapItem;
+import org.hippoecm.hst.core.sitemenu.HstSiteMenu;
+import org.hippoecm.hst.core.sitemenu.HstSiteMenuItem;
+import org.hippoecm.hst.core.sitemenu.HstSiteMenus;
+import org.hippoecm.hst.mock.core.linking.MockHstLink;
+import org.junit.Assume;
+import org.junit.Before;
+import org.junit.Test;
+import org.onehippo.forge.breadcrumb.om.Breadcrumb;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Checks that getBreadcrumb stays within a fixed allocation budget per call, the budget leaving room for the
+ * result objects only.
+ */
+public class BreadcrumbProviderAllocationTest {
+
+    private static final int WARM_UP_CALLS = 20000;
+    private static final int MEASURED_CALLS = 10000;
+
+    /**
+     * cache key, the breadcrumb handed out with its own item list, item and link, and the argument arrays of the
+     * stubbed request attribute calls per call
+     */
+    private static final long CACHED_BUDGET = 384;
+
+    /**
+     * item lists, item, breadcrumb, its request scoped snapshot and the argument arrays of the stubbed menus and
+     * request attributes per call
+     */
+    private static final long UNCACHED_BUDGET = 384;
+
+    private com.sun.management.ThreadMXBean threadBean;
+    private HstRequest request;
+
+    @Before
+    public void setUp() {
+        threadBean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        Assume.assumeTrue(threadBean.isThreadAllocatedMemorySupported() && threadBean.isThreadAllocatedMemoryEnabled());
+
+        final VirtualHosts virtualHosts = stub(VirtualHosts.class, Map.of());
+        final VirtualHost virtualHost = stub(VirtualHost.class, Map.of("getVirtualHosts", virtualHosts));
+        final Mount mount = stub(Mount.class, Map.of("getIdentifier", "mount", "getVirtualHost", virtualHost,
+                "getContentPath", "/content/documents/site", "isPreview", false, "isSubjectBasedSession", false,
+                "isAuthenticated", false));
+        final ResolvedMount resolvedMount = stub(ResolvedMount.class, Map.of("getMount", mount));
+        final ResolvedSiteMapItem resolvedSiteMapItem = stub(ResolvedSiteMapItem.class,
+                Map.of("getPathInfo", "news/2024", "isAuthenticated", false));
+        final HstSiteMenuItem menuItem = stub(HstSiteMenuItem.class,
+                Map.of("getName", "News", "getHstLink", new MockHstLink("news"),
+                        "resolveToSiteMapItem", resolvedSiteMapItem));
+        final HstSiteMenu menu = stub(HstSiteMenu.class, Map.of("getName", "main", "getDeepestExpandedItem", menuItem));
+        final HstSiteMenus menus = stub(HstSiteMenus.class, Map.of("getSiteMenu", menu));
+        final HstRequestContext context = stub(HstRequestContext.class, Map.of("getResolvedMount", resolvedMount,
+                "getResolvedSiteMapItem", resolvedSiteMapItem, "getHstSiteMenus", menus,
+                "isPreview", false, "isChannelManagerPreviewRequest", false));
+        request = stub(HstRequest.class, Map.of("getRequestContext", context));
+    }
+
+    @Test
+    public void testCachedBreadcrumbAllocationBudget() {
+        final BreadcrumbProvider provider = createProvider(true);
+        // every hit gets its own items and links
+        final Breadcrumb first = provider.getBreadcrumb(request);
+        final Breadcrumb second = provider.getBreadcrumb(request);
+        assertEquals(first.getItems(), second.getItems());
+        assertNotSame(first.getItems().get(0).getLink(), second.getItems().get(0).getLink());
+
+        final long bytesPerCall = measure(provider);
+        assertTrue("cached getBreadcrumb allocates " + bytesPerCall + " bytes per call",
+                bytesPerCall <= CACHED_BUDGET);
+    }
+
+    @Test
+    public void testUncachedBreadcrumbAllocationBudget() {
+        final BreadcrumbProvider provider = createProvider(false);
+        assertEquals(1, provider.getBreadcrumb(request).getItems().size());
+
+        final long bytesPerCall = measure(provider);
+        assertTrue("uncached getBreadcrumb allocates " + bytesPerCall + " bytes per call",
+                bytesPerCall <= UNCACHED_BUDGET);
+    }
+
+    private BreadcrumbProvider createProvider(final boolean cacheEnabled) {
+        // the base component has no content beans, so the breadcrumb consists of the menu item
+        return new BreadcrumbProvider(new BaseHstComponent(),
+                new BreadcrumbConfiguration(null, null, null, false, false, cacheEnabled, false));
+    }
+
+    private long measure(final BreadcrumbProvider provider) {
+        for (int i = 0; i < WARM_UP_CALLS; i++) {
+            provider.getBreadcrumb(request);
+        }
+
+        final long threadId = Thread.currentThread().getId();
+        final long before = threadBean.getThreadAllocatedBytes(threadId);
+        for (int i = 0; i < MEASURED_CALLS; i++) {
+            provider.getBreadcrumb(request);
+        }
+        return (threadBean.getThreadAllocatedBytes(threadId) - before) / MEASURED_CALLS;
+    }
+
+    private static <T> T stub(final Class<T> type, final Map<String, Object> answers) {
+        return type.cast(Proxy.newProxyInstance(BreadcrumbProviderAllocationTest.class.getClassLoader(),
+                new Class<?>[] { type }, (proxy, method, args) -> {
+                    if (method.getName().equals("hashCode")) {
+                        return System.identityHashCode(proxy);
+                    }
+                    if (method.getName().equals("equals")) {
+                        return proxy == args[0];
+                    }
+                    return answers.get(method.getName());
+                }));
+    }
+}
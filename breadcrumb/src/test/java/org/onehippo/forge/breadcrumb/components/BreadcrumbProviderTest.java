@@ -0,0 +1,174 @@
+/*
+ * Copyright 2026 Bloomreach
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onehippo.forge.breadcrumb.components;
+
+import java.lang.reflect.Proxy;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.hippoecm.hst.component.support.bean.BaseHstComponent;
+import org.hippoecm.hst.configuration.hosting.Mount;
+import org.hippoecm.hst.content.beans.standard.HippoBean;
+import org.hippoecm.hst.core.component.HstRequest;
+import org.hippoecm.hst.core.request.HstRequestContext;
+import org.hippoecm.hst.core.request.ResolvedMount;
+import org.hippoecm.hst.core.request.ResolvedSiteMapItem;
+import org.hippoecm.hst.core.sitemenu.HstSiteMenu;
+import org.hippoecm.hst.core.sitemenu.HstSiteMenuItem;
+import org.hippoecm.hst.core.sitemenu.HstSiteMenus;
+import org.hippoecm.hst.mock.core.linking.MockHstLink;
+import org.junit.Test;
+import org.onehippo.forge.breadcrumb.cache.AncestorEntry;
+import org.onehippo.forge.breadcrumb.om.Breadcrumb;
+import org.onehippo.forge.breadcrumb.om.BreadcrumbItem;
+import org.onehippo.forge.breadcrumb.om.LazyBreadcrumb;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertTrue;
+
+public class BreadcrumbProviderTest {
+
+    private static final BreadcrumbConfiguration CONFIGURATION = new BreadcrumbConfiguration(null, null, null, false,
+            true, true, false);
+
+    private final Map<String, Object> contextAttributes = new HashMap<>();
+
+    @Test
+    public void testAncestorEntryItemsEnabledByDefault() {
+        assertTrue(new BreadcrumbProvider(new BaseHstComponent(), CONFIGURATION).isAncestorEntryItemsEnabled());
+    }
+
+    @Test
+    public void testAncestorEntryItemsDisabledForCustomBeanItems() {
+        assertFalse(new BeanTitleProvider().isAncestorEntryItemsEnabled());
+        assertFalse(new BeanTitleProvider() {
+        }.isAncestorEntryItemsEnabled());
+        assertTrue(new EntryTitleProvider().isAncestorEntryItemsEnabled());
+    }
+
+    @Test
+    public void testLaterCallsOfRequestGetOwnCopy() {
+        final HstRequest request = createRequest();
+        final BreadcrumbConfiguration configuration = new BreadcrumbConfiguration(null, null, null, false, false,
+                false, false);
+        final Breadcrumb first = new BreadcrumbProvider(new BaseHstComponent(), configuration).getBreadcrumb(request);
+        first.getItems().get(0).getLink().setPath("changed");
+        first.getItems().add(new BreadcrumbItem(null, "Added"));
+
+        // a later caller gets a copy of the breadcrumb as the first caller left it
+        final Breadcrumb second = new BreadcrumbProvider(new BaseHstComponent(), configuration).getBreadcrumb(request);
+        assertNotSame(first, second);
+        assertEquals(2, second.getItems().size());
+        assertEquals("changed", second.getItems().get(0).getLink().getPath());
+        second.getItems().get(0).getLink().setPath("changed again");
+        second.getItems().add(new BreadcrumbItem(null, "Added"));
+        assertEquals("changed", first.getItems().get(0).getLink().getPath());
+        assertEquals(2, first.getItems().size());
+    }
+
+    @Test
+    public void testLaterCallsOfRequestGetOwnLazyCopy() {
+        final HstRequest request = createRequest();
+        final BreadcrumbConfiguration configuration = new BreadcrumbConfiguration(null, null, null, false, false,
+                false, true);
+        final Breadcrumb first = new BreadcrumbProvider(new BaseHstComponent(), configuration).getBreadcrumb(request);
+        final Breadcrumb second = new BreadcrumbProvider(new BaseHstComponent(), configuration).getBreadcrumb(request);
+        assertNotSame(first, second);
+        assertTrue(second instanceof LazyBreadcrumb);
+
+        second.getItems().get(0).getLink().setPath("changed");
+        second.getItems().add(new BreadcrumbItem(null, "Added"));
+        assertEquals(1, first.getItems().size());
+        assertEquals("news", first.getItems().get(0).getLink().getPath());
+    }
+
+    @Test
+    public void testComponentClassesDoNotShare() {
+        final HstRequest request = createRequest();
+        final BreadcrumbConfiguration configuration = new BreadcrumbConfiguration(null, null, null, false, false,
+                false, false);
+        new BreadcrumbProvider(new BaseHstComponent(), configuration).getBreadcrumb(request);
+
+        // a component of another class may resolve other beans, so it generates its own breadcrumb
+        final Breadcrumb other = new BreadcrumbProvider(new BaseHstComponent() {
+        }, configuration).getBreadcrumb(request);
+        assertEquals(1, other.getItems().size());
+        assertEquals(2, contextAttributes.size());
+    }
+
+    private HstRequest createRequest() {
+        final Mount mount = stub(Mount.class, Map.of("getIdentifier", "mount", "getContentPath",
+                "/content/documents/site", "isPreview", false, "isSubjectBasedSession", false, "isAuthenticated",
+                false));
+        final ResolvedMount resolvedMount = stub(ResolvedMount.class, Map.of("getMount", mount));
+        final ResolvedSiteMapItem resolvedSiteMapItem = stub(ResolvedSiteMapItem.class,
+                Map.of("getPathInfo", "news", "isAuthenticated", false));
+        final HstSiteMenuItem menuItem = stub(HstSiteMenuItem.class, Map.of("getName", "News", "getHstLink",
+                new MockHstLink("news"), "resolveToSiteMapItem", resolvedSiteMapItem));
+        final HstSiteMenu menu = stub(HstSiteMenu.class, Map.of("getName", "main", "getDeepestExpandedItem", menuItem));
+        final HstSiteMenus menus = stub(HstSiteMenus.class, Map.of("getSiteMenu", menu));
+        final HstRequestContext context = (HstRequestContext) Proxy.newProxyInstance(
+                BreadcrumbProviderTest.class.getClassLoader(), new Class<?>[] {HstRequestContext.class},
+                (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "getAttribute":
+                            return contextAttributes.get(args[0]);
+                        case "setAttribute":
+                            return contextAttributes.put((String) args[0], args[1]);
+                        default:
+                            return Map.of("getResolvedMount", resolvedMount, "getResolvedSiteMapItem",
+                                    resolvedSiteMapItem, "getHstSiteMenus", menus, "isPreview", false,
+                                    "isChannelManagerPreviewRequest", false).get(method.getName());
+                    }
+                });
+        return stub(HstRequest.class, Map.of("getRequestContext", context));
+    }
+
+    private static <T> T stub(final Class<T> type, final Map<String, Object> answers) {
+        return type.cast(Proxy.newProxyInstance(BreadcrumbProviderTest.class.getClassLoader(),
+                new Class<?>[] {type}, (proxy, method, args) -> {
+                    if (method.getName().equals("hashCode")) {
+                        return System.identityHashCode(proxy);
+                    }
+                    if (method.getName().equals("equals")) {
+                        return proxy == args[0];
+                    }
+                    return answers.get(method.getName());
+                }));
+    }
+
+    private static class BeanTitleProvider extends BreadcrumbProvider {
+
+        BeanTitleProvider() {
+            super(new BaseHstComponent(), CONFIGURATION);
+        }
+
+        @Override
+        protected BreadcrumbItem getBreadcrumbItem(final HstRequest request, final HippoBean bean) {
+            return new BreadcrumbItem(null, bean.getName());
+        }
+    }
+
+    private static class EntryTitleProvider extends BeanTitleProvider {
+
+        @Override
+        protected BreadcrumbItem getBreadcrumbItem(final HstRequest request, final AncestorEntry entry) {
+            return new BreadcrumbItem(null, entry.getDisplayName());
+        }
+    }
+}
@@ -0,0 +1,68 @@
+/*
+ * Copyright 2026 Bloomreach
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onehippo.forge.breadcrumb.om;
+
+import java.lang.reflect.Proxy;
+import java.util.Arrays;
+
+import org.hippoecm.hst.core.linking.HstLink;
+import org.junit.Test;
+import org.onehippo.forge.breadcrumb.components.BreadcrumbProvider;
+
+import static org.junit.Assert.assertEquals;
+
+public class BreadcrumbHtmlRendererTest {
+
+    @Test
+    public void testRenderLikeTemplate() {
+        final Breadcrumb breadcrumb = new Breadcrumb(Arrays.asList(new BreadcrumbItem(link("/", false), "Home"),
+                new BreadcrumbItem(null, "News & <Events>"),
+                new BreadcrumbItem(link("/news/article", false), "Article")), "&#187;", null);
+
+        assertEquals("<a href=\"/\" style=\"cursor: pointer\">Home</a> &#187;&nbsp;"
+                + "<a>News &amp; &lt;Events&gt;</a> &#187;&nbsp;"
+                + "<a  style=\"cursor: pointer\">Article</a>", BreadcrumbHtmlRenderer.render(breadcrumb, null));
+    }
+
+    @Test
+    public void testRenderNotFoundLinks() {
+        final Breadcrumb unlinked = new Breadcrumb(Arrays.asList(new BreadcrumbItem(link("/", false), "Home"),
+                new BreadcrumbItem(link("/missing", true), "Missing"), new BreadcrumbItem(null, "Article")),
+                "/", BreadcrumbProvider.LinkNotFoundMode.UNLINK);
+        assertEquals("<a href=\"/\" style=\"cursor: pointer\">Home</a> /&nbsp;<a>Missing</a> /&nbsp;<a>Article</a>",
+                BreadcrumbHtmlRenderer.render(unlinked, null));
+
+        final Breadcrumb hidden = new Breadcrumb(Arrays.asList(new BreadcrumbItem(link("/", false), "Home"),
+                new BreadcrumbItem(link("/missing", true), "Missing")), "/", BreadcrumbProvider.LinkNotFoundMode.HIDE);
+        // the template still separates an item from a hidden last one
+        assertEquals("<a href=\"/\" style=\"cursor: pointer\">Home</a> /&nbsp;",
+                BreadcrumbHtmlRenderer.render(hidden, null));
+    }
+
+    private static HstLink link(final String url, final boolean notFound) {
+        return (HstLink) Proxy.newProxyInstance(HstLink.class.getClassLoader(), new Class<?>[] {HstLink.class},
+                (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "toUrlForm":
+                            return url;
+                        case "isNotFound":
+                            return notFound;
+                        default:
+                            return null;
+                    }
+                });
+    }
+}
@@ -0,0 +1,46 @@
+/*
+ * Copyright 2026 Bloomreach
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onehippo.forge.breadcrumb.om;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.Arrays;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+public class BreadcrumbJsonLdWriterTest {
+
+    @Test
+    public void testWriteString() throws IOException {
+        final StringWriter writer = new StringWriter();
+        BreadcrumbJsonLdWriter.writeString(writer, "a\"b\\c\nd</script>&\u2028\u0001");
+        assertEquals("\"a\\\"b\\\\c\\nd\\u003c/script\\u003e\\u0026\\u2028\\u0001\"", writer.toString());
+    }
+
+    @Test
+    public void testWriteItemsWithoutLink() throws IOException {
+        final Breadcrumb breadcrumb = new Breadcrumb(Arrays.asList(new BreadcrumbItem(null, "News"),
+                new BreadcrumbItem(null, null)), "/", null);
+
+        final StringWriter writer = new StringWriter();
+        BreadcrumbJsonLdWriter.write(breadcrumb, null, writer);
+        assertEquals("{\"@context\":\"https://schema.org\",\"@type\":\"BreadcrumbList\",\"itemListElement\":["
+                + "{\"@type\":\"ListItem\",\"position\":1,\"name\":\"News\"},"
+                + "{\"@type\":\"ListItem\",\"position\":2,\"name\":null}]}", writer.toString());
+    }
+}
@@ -0,0 +1,81 @@
+/*
+ * Copyright 2026 Bloomreach
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onehippo.forge.breadcrumb.om;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.hippoecm.hst.mock.core.linking.MockHstLink;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class BreadcrumbNodeTest {
+
+    @Test
+    public void testSharedPrefix() {
+        final BreadcrumbNode first = BreadcrumbNode.of(breadcrumb("news/2026/first"));
+        final BreadcrumbNode second = BreadcrumbNode.of(breadcrumb("news/2026/second"));
+
+        assertEquals(3, first.getDepth());
+        assertFalse(first == second);
+        assertSame(first.getParent(), second.getParent());
+        assertSame(first.getParent().getParent(), second.getParent().getParent());
+        assertSame(first, BreadcrumbNode.of(breadcrumb("news/2026/first")));
+    }
+
+    @Test
+    public void testToBreadcrumb() {
+        final Breadcrumb source = breadcrumb("news/2026/first");
+        final Breadcrumb breadcrumb = BreadcrumbNode.toBreadcrumb(BreadcrumbNode.of(source), null,
+                source.getSeparator(), source.getLinkNotFoundMode());
+
+        assertEquals(source.getItems(), breadcrumb.getItems());
+        assertEquals("news/2026", breadcrumb.getItems().get(1).getLink().getPath());
+        assertEquals(">", breadcrumb.getSeparator());
+        try {
+            breadcrumb.getItems().add(new BreadcrumbItem(null, "Added"));
+            fail("items of a breadcrumb built from nodes are shared, so they cannot be modified");
+        } catch (UnsupportedOperationException e) {
+            // expected
+        }
+    }
+
+    @Test
+    public void testItemWithoutLink() {
+        final BreadcrumbNode node = BreadcrumbNode.of(null, "Home", null, null, null, false, false);
+        final List<BreadcrumbItem> items = BreadcrumbNode.toItems(node, null);
+
+        assertEquals(1, items.size());
+        assertNull(items.get(0).getLink());
+        assertEquals("Home", items.get(0).getTitle());
+        assertTrue(BreadcrumbNode.toItems(null, null).isEmpty());
+    }
+
+    private static Breadcrumb breadcrumb(final String path) {
+        final String[] names = path.split("/");
+        final BreadcrumbItem[] items = new BreadcrumbItem[names.length];
+        for (int i = 0; i < names.length; i++) {
+            items[i] = new BreadcrumbItem(new MockHstLink(String.join("/", Arrays.copyOf(names, i + 1))), names[i]);
+        }
+        return new Breadcrumb(Arrays.asList(items), ">", null);
+    }
+}
@@ -0,0 +1,61 @@
+/*
+ * Copyright 2026 Bloomreach
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onehippo.forge.breadcrumb.om;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.hippoecm.hst.mock.core.linking.MockHstLink;
+import org.junit.Test;
+import org.onehippo.forge.breadcrumb.components.BreadcrumbProvider;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class BreadcrumbSerializerTest {
+
+    @Test
+    public void testBeanPropertiesWithoutModule() throws Exception {
+        final Breadcrumb breadcrumb = new Breadcrumb(Collections.singletonList(new BreadcrumbItem(null, "News")), "/",
+                BreadcrumbProvider.LinkNotFoundMode.HIDE);
+
+        final JsonNode json = new ObjectMapper().valueToTree(breadcrumb);
+        assertEquals("hide", json.get("linkNotFoundMode").asText());
+        assertEquals("/", json.get("separator").asText());
+        assertEquals("News", json.get("items").get(0).get("title").asText());
+        assertTrue(json.get("items").get(0).has("link"));
+        assertFalse(json.get("items").get(0).has("href"));
+    }
+
+    @Test
+    public void testCompactFormWithModule() throws Exception {
+        final Breadcrumb breadcrumb = new Breadcrumb(Arrays.asList(new BreadcrumbItem(new MockHstLink("news"), "News"),
+                new BreadcrumbItem(null, "Article")), "/", BreadcrumbProvider.LinkNotFoundMode.HIDE);
+
+        final ObjectMapper objectMapper = new ObjectMapper().registerModule(new BreadcrumbModule());
+        assertEquals("{\"separator\":\"/\",\"linkNotFoundMode\":\"hide\",\"items\":["
+                + "{\"title\":\"News\",\"href\":\"/news\",\"type\":\"internal\",\"notFound\":false},"
+                + "{\"title\":\"Article\",\"href\":null,\"type\":null,\"notFound\":false}]}",
+                objectMapper.writeValueAsString(breadcrumb));
+        // subclasses are serialized the same way
+        final LazyBreadcrumb lazy = new LazyBreadcrumb(() -> Collections.emptyList(), null, null);
+        assertEquals("{\"separator\":null,\"linkNotFoundMode\":null,\"items\":[]}",
+                objectMapper.writeValueAsString(lazy));
+    }
+}
@@ -3,7 +3,9 @@
 <#-- @ftlvariable name="breadcrumb" type="org.onehippo.forge.breadcrumb.om.Breadcrumb" -->
 <#if breadcrumb?? && breadcrumb.items??>
     <#list breadcrumb.items as item>
-        <#if item.link.notFound && (breadcrumb.linkNotFoundMode == 'hide' || breadcrumb.linkNotFoundMode == 'unlink')>
+        <#if !item.link??>
+            <a>${item.title?html}</a><#sep> ${breadcrumb.separator}&nbsp;
+        <#elseif item.link.notFound && (breadcrumb.linkNotFoundMode == 'hide' || breadcrumb.linkNotFoundMode == 'unlink')>
             <#if breadcrumb.linkNotFoundMode == 'unlink'>
                 <a>${item.title?html}</a><#sep> ${breadcrumb.separator}&nbsp;
             </#if>